@@ -0,0 +1,124 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.ConcurrentIntIntSwissMap;
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import gnu.trove.TCollections;
+import gnu.trove.map.TIntIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up and counts keys drawn from a million distinct ones in a map shared by every thread, comparing
+ * {@link ConcurrentIntIntSwissMap} against a {@link ConcurrentHashMap} of boxed integers and an {@link IntIntSwissMap}
+ * wrapped by {@link TCollections#synchronizedMap(TIntIntMap)}.
+ *
+ * Run {@link #main} to measure every thread count from 1 to 32, or pass {@code -t} to the benchmarks jar for one.
+ * Throughput only scales with threads up to the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConcurrentIntIntSwissMapBenchmark {
+    private static final int KEYS = 1 << 20;
+    // The keys each thread cycles through, drawn independently of the other threads
+    private static final int THREAD_KEYS = 1 << 16;
+
+    @Param({"ConcurrentIntIntSwissMap", "ConcurrentHashMap", "synchronizedMap"})
+    private String implementation;
+
+    private TIntIntMap troveMap;
+    private Map<Integer, Integer> boxedMap;
+
+    @Setup
+    public void setUp() {
+        switch (implementation) {
+            case "ConcurrentIntIntSwissMap":
+                troveMap = new ConcurrentIntIntSwissMap(KEYS, 0.75, 0, 0, 32);
+                break;
+            case "ConcurrentHashMap":
+                boxedMap = new ConcurrentHashMap<>(KEYS, 0.75f, 32);
+                break;
+            case "synchronizedMap":
+                troveMap = TCollections.synchronizedMap(new IntIntSwissMap(KEYS, 0.75, 0, 0));
+                break;
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+        // Half of the keys are present, so half of the lookups miss and half of the counts insert
+        for (int key = 0; key < KEYS; key += 2) {
+            if (troveMap != null) {
+                troveMap.put(key, 1);
+            } else {
+                boxedMap.put(key, 1);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private int[] keys;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(Thread.currentThread().getId());
+            keys = new int[THREAD_KEYS];
+            for (int i = 0; i < THREAD_KEYS; i++) {
+                keys[i] = random.nextInt(KEYS);
+            }
+        }
+
+        int next() {
+            return keys[next++ & THREAD_KEYS - 1];
+        }
+    }
+
+    @Benchmark
+    public int get(ThreadKeys keys) {
+        int key = keys.next();
+        if (troveMap != null) {
+            return troveMap.get(key);
+        }
+        Integer value = boxedMap.get(key);
+        return value == null ? 0 : value;
+    }
+
+    @Benchmark
+    public int count(ThreadKeys keys) {
+        int key = keys.next();
+        if (troveMap != null) {
+            return troveMap.adjustOrPutValue(key, 1, 1);
+        }
+        return boxedMap.merge(key, 1, Integer::sum);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32}) {
+            new Runner(new OptionsBuilder()
+                    .include(ConcurrentIntIntSwissMapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+}
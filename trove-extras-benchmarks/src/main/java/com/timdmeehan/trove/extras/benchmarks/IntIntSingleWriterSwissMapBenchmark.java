@@ -0,0 +1,104 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.ConcurrentIntIntSwissMap;
+import com.timdmeehan.trove.extras.IntIntSingleWriterSwissMap;
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import gnu.trove.TCollections;
+import gnu.trove.map.TIntIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up keys drawn from a million distinct ones in three threads while a fourth thread keeps putting and removing
+ * keys, comparing {@link IntIntSingleWriterSwissMap} against {@link ConcurrentIntIntSwissMap} and an
+ * {@link IntIntSwissMap} wrapped by {@link TCollections#synchronizedMap(TIntIntMap)}.  The writer's keys come from the
+ * same range, so its removes leave tombstones and its puts reuse them.
+ *
+ * Reads only scale with threads up to the number of cores, so on fewer than four cores the threads mostly take turns.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IntIntSingleWriterSwissMapBenchmark {
+    private static final int KEYS = 1 << 20;
+    // The keys each thread cycles through, drawn independently of the other threads
+    private static final int THREAD_KEYS = 1 << 16;
+
+    @Param({"IntIntSingleWriterSwissMap", "ConcurrentIntIntSwissMap", "synchronizedMap"})
+    private String implementation;
+
+    private TIntIntMap map;
+
+    @Setup
+    public void setUp() {
+        switch (implementation) {
+            case "IntIntSingleWriterSwissMap":
+                map = new IntIntSingleWriterSwissMap(KEYS, 0.75, 0, 0);
+                break;
+            case "ConcurrentIntIntSwissMap":
+                map = new ConcurrentIntIntSwissMap(KEYS, 0.75, 0, 0, 32);
+                break;
+            case "synchronizedMap":
+                map = TCollections.synchronizedMap(new IntIntSwissMap(KEYS, 0.75, 0, 0));
+                break;
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+        // Half of the keys are present, so half of the lookups miss
+        for (int key = 0; key < KEYS; key += 2) {
+            map.put(key, 1);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private int[] keys;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(Thread.currentThread().getId());
+            keys = new int[THREAD_KEYS];
+            for (int i = 0; i < THREAD_KEYS; i++) {
+                keys[i] = random.nextInt(KEYS);
+            }
+        }
+
+        int next() {
+            return keys[next++ & THREAD_KEYS - 1];
+        }
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(3)
+    public int get(ThreadKeys keys) {
+        return map.get(keys.next());
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public int write(ThreadKeys keys) {
+        // Puts and removes the present half of the keys in equal measure, so the size stays steady
+        int key = keys.next();
+        return (key & 1) == 0 ? map.put(key, key) : map.remove(key - 1);
+    }
+}
@@ -0,0 +1,89 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up a batch of keys one at a time with {@link IntIntSwissMap#get(int)} against the interleaved
+ * probes of {@link IntIntSwissMap#getAll(int[], int, int, int[])}.  The larger sizes do not fit in cache, which is
+ * where overlapping the misses pays off.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntIntSwissMapBatchGetBenchmark {
+    private static final int BATCH = 1024;
+    // Enough distinct keys that each invocation looks up keys which are unlikely to still be in cache
+    private static final int KEYS = 1 << 20;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int size;
+
+    /** Fraction of the looked up keys which are present in the map */
+    @Param({"1.0", "0.5"})
+    private double hitRatio;
+
+    private IntIntSwissMap map;
+    private int[] keys;
+    private int[] out;
+    private int offset;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        map = new IntIntSwissMap(size, 0.75, 0, -1);
+        int[] present = new int[size];
+        for (int i = 0; i < size; i++) {
+            // Even keys are present, odd keys absent
+            present[i] = random.nextInt() << 1;
+            map.put(present[i], i);
+        }
+        keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            int key = present[random.nextInt(size)];
+            keys[i] = random.nextDouble() < hitRatio ? key : key | 1;
+        }
+        out = new int[KEYS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] scalarGet() {
+        int start = nextOffset();
+        for (int i = 0; i < BATCH; i++) {
+            out[start + i] = map.get(keys[start + i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] batchGet() {
+        int start = nextOffset();
+        map.getAll(keys, start, BATCH, out);
+        return out;
+    }
+
+    private int nextOffset() {
+        int start = offset;
+        offset = (offset + BATCH) & (KEYS - 1);
+        return start;
+    }
+}
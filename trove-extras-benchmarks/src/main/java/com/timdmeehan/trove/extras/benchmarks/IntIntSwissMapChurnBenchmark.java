@@ -0,0 +1,87 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups of absent keys in an {@link IntIntSwissMap} after a mixed put and remove workload, against the same
+ * entries put into a new map of the same capacity.  A miss probes until it reaches a group with an empty slot, so the
+ * difference is the cost of the tombstones which churn leaves behind.  Since a removal only leaves a tombstone in a
+ * group with no empty slot, these are the tombstones which lengthen probes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntIntSwissMapChurnBenchmark {
+    private static final int CAPACITY = 1 << 20;
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"0.75", "0.875"})
+    private double loadFactor;
+
+    // The number of distinct keys, of which about half are present at any time
+    @Param({"1000000", "1400000"})
+    private int keySpace;
+
+    @Param({"churned", "rebuilt"})
+    private String table;
+
+    private IntIntSwissMap map;
+    private int[] misses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int expectedSize = (int) (CAPACITY * loadFactor) - 1;
+        map = new IntIntSwissMap(expectedSize, loadFactor, -1, -1);
+        for (int i = 0; i < 4 * CAPACITY; i++) {
+            int key = random.nextInt(keySpace);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+            } else {
+                map.remove(key);
+            }
+        }
+        if ("rebuilt".equals(table)) {
+            IntIntSwissMap rebuilt = new IntIntSwissMap(expectedSize, loadFactor, -1, -1);
+            // Put entry by entry, as putAll would copy the layout of a map with the same capacity and hash
+            map.forEachEntry((key, value) -> {
+                rebuilt.put(key, value);
+                return true;
+            });
+            map = rebuilt;
+        }
+
+        misses = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            misses[i] = keySpace + random.nextInt(Integer.MAX_VALUE - keySpace);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int miss() {
+        int sum = 0;
+        for (int key : misses) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+}
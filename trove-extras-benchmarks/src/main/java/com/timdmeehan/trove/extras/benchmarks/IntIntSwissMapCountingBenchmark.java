@@ -0,0 +1,65 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts a million occurrences of keys drawn from a million distinct ones, about two thirds of which are seen for the
+ * first time.  Compares {@link IntIntSwissMap#increment} followed by a put of absent keys, which probes them twice,
+ * against {@link IntIntSwissMap#merge}, which probes them once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IntIntSwissMapCountingBenchmark {
+    private static final int EVENTS = 1 << 20;
+
+    private int[] events;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        events = new int[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = random.nextInt(EVENTS);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public IntIntSwissMap incrementThenPut() {
+        IntIntSwissMap map = new IntIntSwissMap(EVENTS, 0.75, 0, 0);
+        for (int key : events) {
+            if (!map.increment(key)) {
+                map.put(key, 1);
+            }
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public IntIntSwissMap merge() {
+        IntIntSwissMap map = new IntIntSwissMap(EVENTS, 0.75, 0, 0);
+        for (int key : events) {
+            map.merge(key, 1, Integer::sum);
+        }
+        return map;
+    }
+}
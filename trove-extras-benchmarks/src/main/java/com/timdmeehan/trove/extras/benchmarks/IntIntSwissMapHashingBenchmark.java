@@ -0,0 +1,66 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntHashingStrategy;
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in an {@link IntIntSwissMap} using the default hash, which is called directly, against one using
+ * a seeded {@link IntHashingStrategy}, which is called through the interface and mixes more.  The map fits in cache,
+ * so that the cost of hashing is not hidden behind cache misses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class IntIntSwissMapHashingBenchmark {
+    private static final int BATCH = 1024;
+    private static final int SIZE = 10_000;
+
+    @Param({"default", "seeded"})
+    private String strategy;
+
+    private IntIntSwissMap map;
+    private int[] keys;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        IntHashingStrategy hashingStrategy = "seeded".equals(strategy) ? IntHashingStrategy.seeded(random.nextLong()) : IntHashingStrategy.DEFAULT;
+        map = new IntIntSwissMap(SIZE, 0.75, 0, -1, hashingStrategy);
+        keys = new int[BATCH];
+        for (int i = 0; i < SIZE; i++) {
+            int key = random.nextInt();
+            map.put(key, i);
+            if (i < BATCH) {
+                keys[i] = key;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int get() {
+        int sum = 0;
+        for (int key : keys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,105 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntOffHeapSwissMap;
+import com.timdmeehan.trove.extras.IntIntPackedSwissMap;
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import gnu.trove.map.TIntIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares random lookups in {@link IntIntSwissMap}, which keeps its metadata, keys and values in separate arrays,
+ * against {@link IntIntPackedSwissMap}, which keeps each group's metadata and entries together in one array.  At 16
+ * million entries either table is a few hundred megabytes, far larger than any L3 cache, so nearly every lookup
+ * misses; the separate layout then costs up to three misses per hit and the packed layout one or two.
+ *
+ * The offHeap layout is the packed layout in direct memory, as kept by {@link IntIntOffHeapSwissMap}, which shows what
+ * reading the table through byte buffers rather than a long array costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IntIntSwissMapLayoutBenchmark {
+    private static final int BATCH = 1024;
+    // Enough distinct keys that each invocation looks up keys which are unlikely to still be in cache
+    private static final int KEYS = 1 << 20;
+
+    @Param({"separate", "packed", "offHeap"})
+    private String layout;
+
+    @Param({"100000", "16000000"})
+    private int size;
+
+    /** Fraction of the looked up keys which are present in the map */
+    @Param({"1.0", "0.0"})
+    private double hitRatio;
+
+    private TIntIntMap map;
+    private int[] keys;
+    private int offset;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        switch (layout) {
+            case "separate":
+                map = new IntIntSwissMap(size, 0.75, 0, -1);
+                break;
+            case "packed":
+                map = new IntIntPackedSwissMap(size, 0.75, 0, -1);
+                break;
+            case "offHeap":
+                map = new IntIntOffHeapSwissMap(size, 0.75, 0, -1);
+                break;
+            default:
+                throw new IllegalArgumentException(layout);
+        }
+        int[] present = new int[size];
+        for (int i = 0; i < size; i++) {
+            // Even keys are present, odd keys absent
+            present[i] = random.nextInt() << 1;
+            map.put(present[i], i);
+        }
+        keys = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            int key = present[random.nextInt(size)];
+            keys[i] = random.nextDouble() < hitRatio ? key : key | 1;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int get() {
+        int start = offset;
+        offset = (offset + BATCH) & (KEYS - 1);
+        int sum = 0;
+        for (int i = 0; i < BATCH; i++) {
+            sum += map.get(keys[start + i]);
+        }
+        return sum;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (map instanceof IntIntOffHeapSwissMap) {
+            ((IntIntOffHeapSwissMap) map).close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures growing an {@link IntIntSwissMap} of 8 million entries to twice its size, on the calling thread and on a
+ * rehash pool of the given parallelism.  Each invocation starts from a fresh copy of the same map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IntIntSwissMapParallelRehashBenchmark {
+    private static final int SIZE = 8_000_000;
+
+    /** Parallelism of the rehash pool, or 0 to rehash on the calling thread */
+    @Param({"0", "4", "32"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private IntIntSwissMap source;
+    private IntIntSwissMap map;
+
+    @Setup
+    public void setUp() {
+        pool = parallelism == 0 ? null : new ForkJoinPool(parallelism);
+        Random random = new Random(42);
+        source = new IntIntSwissMap(SIZE, 0.75, 0, -1);
+        for (int i = 0; i < SIZE; i++) {
+            source.put(random.nextInt(), i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        map = new IntIntSwissMap(SIZE, 0.75, 0, -1);
+        map.putAll(source);
+        map.setRehashPool(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public IntIntSwissMap rehash() {
+        map.ensureCapacity(SIZE);
+        return map;
+    }
+}
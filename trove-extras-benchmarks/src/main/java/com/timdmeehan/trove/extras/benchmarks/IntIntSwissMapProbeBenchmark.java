@@ -0,0 +1,97 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the SWAR probe of {@link IntIntSwissMap} against the Vector API probe, for hits and misses on tables filled
+ * right up to their load factor.  The vector benchmarks fork with the incubator module added, so need JDK 17 or later.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IntIntSwissMapProbeBenchmark {
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"1048576"})
+    private int capacity;
+
+    @Param({"0.75", "0.875", "0.95"})
+    private double loadFactor;
+
+    private IntIntSwissMap map;
+    private int[] hits;
+    private int[] misses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // Fill the table to one entry short of its resize threshold
+        int size = (int) (capacity * loadFactor) - 1;
+        map = new IntIntSwissMap(size, loadFactor, 0, -1);
+        int[] present = new int[size];
+        for (int i = 0; i < size; i++) {
+            // Even keys are present, odd keys absent
+            present[i] = random.nextInt() << 1;
+            map.put(present[i], i);
+        }
+        hits = new int[LOOKUPS];
+        misses = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            hits[i] = present[random.nextInt(size)];
+            misses[i] = random.nextInt() | 1;
+        }
+    }
+
+    @Benchmark
+    @Fork(1)
+    @OperationsPerInvocation(LOOKUPS)
+    public int swarHit() {
+        return lookUp(hits);
+    }
+
+    @Benchmark
+    @Fork(1)
+    @OperationsPerInvocation(LOOKUPS)
+    public int swarMiss() {
+        return lookUp(misses);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dcom.timdmeehan.trove.extras.vectorProbe=true"})
+    @OperationsPerInvocation(LOOKUPS)
+    public int vectorHit() {
+        return lookUp(hits);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Dcom.timdmeehan.trove.extras.vectorProbe=true"})
+    @OperationsPerInvocation(LOOKUPS)
+    public int vectorMiss() {
+        return lookUp(misses);
+    }
+
+    private int lookUp(int[] keys) {
+        int sum = 0;
+        for (int key : keys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntIncrementalSwissMap;
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import gnu.trove.map.TIntIntMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the latency of single puts into a map which grows from empty to 8 million entries, over and over, so that
+ * every sample run crosses many resize boundaries.  Compare the p99.9 and higher percentiles of {@link IntIntSwissMap},
+ * which rehashes the whole table in one put, against {@link IntIntIncrementalSwissMap}, which spreads it over later
+ * updates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IntIntSwissMapResizeLatencyBenchmark {
+    private static final int MAX_ENTRIES = 1 << 23;
+
+    @Param({"standard", "incremental"})
+    private String resize;
+
+    private TIntIntMap map;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        map = "incremental".equals(resize) ? new IntIntIncrementalSwissMap(0.75, 0, -1) : new IntIntSwissMap(0.75, 0, -1);
+    }
+
+    @Benchmark
+    public int put() {
+        if (next == MAX_ENTRIES) {
+            map.clear();
+            next = 0;
+        }
+        // Distinct keys, spread over the whole int range
+        int key = next++ * 0x9E3779B9;
+        return map.put(key, key);
+    }
+}
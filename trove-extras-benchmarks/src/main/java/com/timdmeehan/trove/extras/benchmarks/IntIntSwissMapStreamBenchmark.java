@@ -0,0 +1,67 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntIntSwissMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums the values of an {@link IntIntSwissMap} of 4 million entries with {@link IntIntSwissMap#forEachValue}, by copying
+ * them out with {@link IntIntSwissMap#values()}, and with sequential and parallel value streams.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IntIntSwissMapStreamBenchmark {
+    private static final int SIZE = 1 << 22;
+
+    private IntIntSwissMap map;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        map = new IntIntSwissMap(SIZE, 0.75, 0, -1);
+        for (int i = 0; i < SIZE; i++) {
+            map.put(random.nextInt(), random.nextInt());
+        }
+    }
+
+    @Benchmark
+    public long forEachValue() {
+        long[] sum = {0};
+        map.forEachValue(value -> {
+            sum[0] += value;
+            return true;
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public long copyValues() {
+        return Arrays.stream(map.values()).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long valueStream() {
+        return map.valueStream().asLongStream().sum();
+    }
+
+    @Benchmark
+    public long parallelValueStream() {
+        return map.valueStream().parallel().asLongStream().sum();
+    }
+}
@@ -0,0 +1,89 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.IntBitSet;
+import com.timdmeehan.trove.extras.IntSwissSet;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and probes a set of a million ids scattered over the whole int range, which is the sparse, high cardinality
+ * case where {@link IntBitSet} spends a bit set per id.  Half of the probes are misses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IntSwissSetBenchmark {
+    private static final int ELEMENTS = 1 << 20;
+
+    @Param({"IntSwissSet", "TIntHashSet", "IntBitSet"})
+    private String implementation;
+
+    private int[] elements;
+    private int[] probes;
+    private TIntSet set;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        elements = new int[ELEMENTS];
+        probes = new int[ELEMENTS];
+        for (int i = 0; i < ELEMENTS; i++) {
+            elements[i] = random.nextInt();
+            probes[i] = (i & 1) == 0 ? elements[i] : random.nextInt();
+        }
+        set = add();
+    }
+
+    private TIntSet newSet() {
+        switch (implementation) {
+            case "IntSwissSet":
+                return new IntSwissSet(0.875, 0);
+            case "TIntHashSet":
+                return new TIntHashSet();
+            case "IntBitSet":
+                return new IntBitSet();
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public TIntSet add() {
+        TIntSet set = newSet();
+        for (int element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public int contains() {
+        int found = 0;
+        for (int probe : probes) {
+            if (set.contains(probe)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
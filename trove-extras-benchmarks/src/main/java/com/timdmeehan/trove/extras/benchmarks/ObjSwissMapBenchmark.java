@@ -0,0 +1,81 @@
+package com.timdmeehan.trove.extras.benchmarks;
+
+import com.timdmeehan.trove.extras.ObjSwissMap;
+import gnu.trove.map.hash.THashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up String keys which share a long prefix, so that every equals call compares most of the key, in maps of a
+ * million entries.  Half of the lookups are misses.  Lookups use fresh String instances, so equals can not return
+ * early on identity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ObjSwissMapBenchmark {
+    private static final int ENTRIES = 1 << 20;
+    private static final String PREFIX = "com.timdmeehan.trove.extras.session.";
+
+    @Param({"ObjSwissMap", "THashMap", "HashMap"})
+    private String implementation;
+
+    private String[] probes;
+    private Map<String, Integer> map;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        switch (implementation) {
+            case "ObjSwissMap":
+                map = new ObjSwissMap<>(0.875);
+                break;
+            case "THashMap":
+                map = new THashMap<>();
+                break;
+            case "HashMap":
+                map = new HashMap<>();
+                break;
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            map.put(PREFIX + i, i);
+        }
+        probes = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            probes[i] = new String(PREFIX + random.nextInt(ENTRIES * 2));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int get() {
+        int sum = 0;
+        for (String probe : probes) {
+            Integer value = map.get(probe);
+            if (value != null) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,22 @@
+package com.timdmeehan.trove.extras.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a SwissTable map into the annotated package for each of the given key and value type pairs, such as
+ * {@code "LongLong"} for a {@code LongLongSwissMap} implementing {@code TLongLongMap}.  Keys may be {@code Int} or
+ * {@code Long}, and values {@code Int}, {@code Long} or {@code Object}.  The maps use the package-private
+ * {@code SwissTables} of the annotated package for their metadata, so that every specialisation shares the same SWAR
+ * functions.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PACKAGE)
+public @interface GenerateSwissMaps {
+    /**
+     * @return the key and value type pairs to generate maps for
+     */
+    String[] value();
+}
@@ -0,0 +1,20 @@
+package com.timdmeehan.trove.extras.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a SwissTable set into the annotated package for each of the given element types, such as {@code "Int"}
+ * for an {@code IntSwissSet} implementing {@code TIntSet}.  Elements may be {@code Int} or {@code Long}.  Like the
+ * maps of {@link GenerateSwissMaps}, the sets use the package-private {@code SwissTables} of the annotated package.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PACKAGE)
+public @interface GenerateSwissSets {
+    /**
+     * @return the element types to generate sets for
+     */
+    String[] value();
+}
@@ -0,0 +1,151 @@
+package com.timdmeehan.trove.extras.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the maps requested by {@link GenerateSwissMaps} from {@code SwissMap.template} and the sets requested by
+ * {@link GenerateSwissSets} from {@code SwissSet.template}, along with a {@code CollectionView.template} base class of
+ * the views and sets for each primitive type they use.
+ *
+ * The map template is written in terms of these tokens, following Trove's own templates:
+ * <ul>
+ * <li>{@code #k#}, {@code #K#} and {@code #KT#}: the key type, its capitalised name and its boxed type</li>
+ * <li>{@code #v#}, {@code #V#} and {@code #VT#}: the same for the value type, which is {@code V} for object values</li>
+ * <li>{@code #va#}: the element type of the values array</li>
+ * <li>{@code #G#}, {@code #EG#} and {@code #PG#}: the type parameters of the map, of maps it accepts and of
+ * procedures it calls, all empty for primitive values</li>
+ * <li>{@code #cast#}: the cast of an element of the values array to the value type</li>
+ * <li>{@code #unbox#}: the call which unboxes a value</li>
+ * <li>{@code #NO_ENTRY_VALUE#}: the value returned for an absent key</li>
+ * <li>{@code #PACKAGE#}: the annotated package</li>
+ * </ul>
+ * and of the {@code OBJECT_VALUES} flag.  The view and set templates use {@code #e#}, {@code #E#} and {@code #ET#} for
+ * their element type.
+ */
+@SupportedAnnotationTypes({
+        "com.timdmeehan.trove.extras.codegen.GenerateSwissMaps",
+        "com.timdmeehan.trove.extras.codegen.GenerateSwissSets"
+})
+public class SwissMapProcessor extends AbstractProcessor {
+    private static final String OBJECT = "Object";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> packages = new LinkedHashSet<>(roundEnv.getElementsAnnotatedWith(GenerateSwissMaps.class));
+        packages.addAll(roundEnv.getElementsAnnotatedWith(GenerateSwissSets.class));
+        for (Element element : packages) {
+            String packageName = ((PackageElement) element).getQualifiedName().toString();
+            GenerateSwissMaps maps = element.getAnnotation(GenerateSwissMaps.class);
+            GenerateSwissSets sets = element.getAnnotation(GenerateSwissSets.class);
+            Set<String> viewTypes = new LinkedHashSet<>();
+            for (String pair : maps == null ? new String[0] : maps.value()) {
+                String keyType = getKeyType(pair);
+                String valueType = pair.substring(keyType.length());
+                if (!keyType.equals("Int") && !keyType.equals("Long")
+                        || !valueType.equals("Int") && !valueType.equals("Long") && !valueType.equals(OBJECT)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unsupported key and value types: " + pair, element);
+                    continue;
+                }
+                generateMap(element, packageName, keyType, valueType);
+                viewTypes.add(keyType);
+                if (!valueType.equals(OBJECT)) {
+                    viewTypes.add(valueType);
+                }
+            }
+            for (String type : sets == null ? new String[0] : sets.value()) {
+                if (!type.equals("Int") && !type.equals("Long")) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unsupported element type: " + type, element);
+                    continue;
+                }
+                write(element, packageName, type + "SwissSet", Template.load("SwissSet.template").render(getElementTokens(type), Collections.emptySet()));
+                viewTypes.add(type);
+            }
+            for (String type : viewTypes) {
+                generateView(element, packageName, type);
+            }
+        }
+        return true;
+    }
+
+    private static String getKeyType(String pair) {
+        for (String type : new String[] {"Int", "Long"}) {
+            if (pair.startsWith(type)) {
+                return type;
+            }
+        }
+        return "";
+    }
+
+    private void generateMap(Element element, String packageName, String keyType, String valueType) {
+        boolean objectValues = valueType.equals(OBJECT);
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("#k#", primitive(keyType));
+        tokens.put("#K#", keyType);
+        tokens.put("#KT#", boxed(keyType));
+        tokens.put("#v#", objectValues ? "V" : primitive(valueType));
+        tokens.put("#V#", valueType);
+        tokens.put("#VT#", objectValues ? "V" : boxed(valueType));
+        tokens.put("#va#", objectValues ? OBJECT : primitive(valueType));
+        tokens.put("#G#", objectValues ? "<V>" : "");
+        tokens.put("#EG#", objectValues ? "<? extends V>" : "");
+        tokens.put("#PG#", objectValues ? "<? super V>" : "");
+        tokens.put("#cast#", objectValues ? "(V) " : "");
+        tokens.put("#unbox#", objectValues ? "" : "." + primitive(valueType) + "Value()");
+        tokens.put("#NO_ENTRY_VALUE#", objectValues ? "null" : "noEntryValue");
+        Set<String> flags = objectValues ? Collections.singleton("OBJECT_VALUES") : Collections.emptySet();
+        write(element, packageName, keyType + valueType + "SwissMap", Template.load("SwissMap.template").render(tokens, flags));
+    }
+
+    private void generateView(Element element, String packageName, String type) {
+        write(element, packageName, type + "CollectionView", Template.load("CollectionView.template").render(getElementTokens(type), Collections.emptySet()));
+    }
+
+    private static Map<String, String> getElementTokens(String type) {
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("#e#", primitive(type));
+        tokens.put("#E#", type);
+        tokens.put("#ET#", boxed(type));
+        return tokens;
+    }
+
+    private void write(Element element, String packageName, String className, String source) {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + className, element);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.replace("#PACKAGE#", packageName));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + className + ": " + e, element);
+        }
+    }
+
+    private static String primitive(String type) {
+        return type.toLowerCase(Locale.ROOT);
+    }
+
+    private static String boxed(String type) {
+        return type.equals("Int") ? "Integer" : type;
+    }
+}
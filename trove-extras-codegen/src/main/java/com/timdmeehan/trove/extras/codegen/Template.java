@@ -0,0 +1,96 @@
+package com.timdmeehan.trove.extras.codegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Java source template.  Tokens such as {@code #K#} are replaced with their values, in the same style as the
+ * templates Trove itself is generated from, and lines between {@code //#if FLAG} (or {@code //#if !FLAG}),
+ * {@code //#else} and {@code //#endif} are kept or dropped depending on whether the flag is set.  Conditions may be
+ * nested.
+ */
+final class Template {
+    private static final String IF = "//#if ";
+    private static final String ELSE = "//#else";
+    private static final String END_IF = "//#endif";
+
+    private final String name;
+    private final String text;
+
+    private Template(String name, String text) {
+        this.name = name;
+        this.text = text;
+    }
+
+    /**
+     * Loads a template from the resources next to this class
+     *
+     * @param name the file name of the template
+     * @return the template
+     */
+    static Template load(String name) {
+        try (InputStream in = requireNonNull(Template.class.getResourceAsStream(name), "No template " + name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+            return new Template(name, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param tokens the value of each token, keyed by the token including its # delimiters
+     * @param flags  the flags which are set
+     * @return the source with the conditions resolved and the tokens replaced
+     */
+    String render(Map<String, String> tokens, Set<String> flags) {
+        StringBuilder out = new StringBuilder(text.length());
+        // Whether the lines of each enclosing condition are kept
+        Deque<Boolean> keep = new ArrayDeque<>();
+        boolean keeping = true;
+        int lineNumber = 0;
+        for (String line : text.split("\n", -1)) {
+            lineNumber++;
+            String directive = line.trim();
+            if (directive.startsWith(IF)) {
+                String flag = directive.substring(IF.length()).trim();
+                boolean set = flag.startsWith("!") ? !flags.contains(flag.substring(1)) : flags.contains(flag);
+                keep.push(keeping);
+                keeping = keeping && set;
+            } else if (directive.equals(ELSE)) {
+                if (keep.isEmpty()) {
+                    throw new IllegalStateException(name + ":" + lineNumber + ": #else without #if");
+                }
+                keeping = keep.peek() && !keeping;
+            } else if (directive.equals(END_IF)) {
+                if (keep.isEmpty()) {
+                    throw new IllegalStateException(name + ":" + lineNumber + ": #endif without #if");
+                }
+                keeping = keep.pop();
+            } else if (keeping) {
+                out.append(line).append('\n');
+            }
+        }
+        if (!keep.isEmpty()) {
+            throw new IllegalStateException(name + ": unterminated #if");
+        }
+
+        String source = out.toString();
+        for (Map.Entry<String, String> token : tokens.entrySet()) {
+            source = source.replace(token.getKey(), token.getValue());
+        }
+        return source;
+    }
+}
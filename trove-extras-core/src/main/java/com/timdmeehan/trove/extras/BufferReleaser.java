@@ -0,0 +1,31 @@
+package com.timdmeehan.trove.extras;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frees the memory of a direct buffer as soon as it is no longer needed, rather than when the garbage collector finds
+ * the buffer unreachable.  The only implementation is {@code UnsafeBufferReleaser}, which calls
+ * {@code sun.misc.Unsafe.invokeCleaner} and so is compiled only on JDK 17 and later, into the versioned section of the
+ * multi-release JAR.  Elsewhere buffers are left to the garbage collector, which frees them eventually.
+ */
+interface BufferReleaser {
+    /**
+     * Frees the memory of the buffer, which must not be used again
+     *
+     * @param buffer a buffer returned by {@link ByteBuffer#allocateDirect}, and not a slice or duplicate of one
+     */
+    void release(ByteBuffer buffer);
+
+    /**
+     * @return the releaser which frees buffers straight away if this JVM can run it, otherwise one which does nothing
+     */
+    static BufferReleaser load() {
+        try {
+            Class<?> releaserClass = Class.forName("com.timdmeehan.trove.extras.UnsafeBufferReleaser");
+            return (BufferReleaser) releaserClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Older JDK, or Unsafe is not accessible
+            return buffer -> { };
+        }
+    }
+}
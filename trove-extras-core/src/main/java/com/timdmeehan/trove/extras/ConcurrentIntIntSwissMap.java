@@ -0,0 +1,496 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.function.TIntFunction;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+
+/**
+ * A thread safe Trove primitive integer to integer map, made of {@link IntIntSwissMap} segments which each have their
+ * own {@link StampedLock} and grow independently.  The top bits of a key's hash pick its segment, so writers of
+ * different segments never contend, and a segment rehashing only blocks the keys in it.
+ *
+ * Lookups first read a segment optimistically, without writing to the lock at all, and only take its read lock if a
+ * write to the segment overlapped the lookup.  Writes take the segment's write lock.
+ *
+ * Bulk operations, iteration and the views go through one segment at a time, so they are weakly consistent: they see
+ * each segment as it was when they reached it, not the whole map at one instant.  Procedures are called on a copy of
+ * each segment, without its lock, so they may use the map themselves, as the views do.  Only the function given to
+ * {@link #transformValues} is called with a segment's write lock held, so it must not use the map.
+ */
+public class ConcurrentIntIntSwissMap
+        implements TIntIntMap {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    private final int noEntryKey;
+    private final int noEntryValue;
+    private final Segment[] segments;
+    // The segment index is the top bits of the hash, shifted down by this much
+    private final int segmentShift;
+
+    public ConcurrentIntIntSwissMap(double loadFactor, int noEntryKey, int noEntryValue) {
+        this(0, loadFactor, noEntryKey, noEntryValue, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries, spread evenly over its segments, before any segment needs to
+     * be rehashed.
+     *
+     * @param expectedSize     the number of entries the map is expected to hold
+     * @param loadFactor       the fraction of each segment's table which may be used before it is rehashed
+     * @param noEntryKey       the key which represents an absent key
+     * @param noEntryValue     the value returned when a key is absent
+     * @param concurrencyLevel the number of threads expected to write at once, rounded up to a power of two segments
+     */
+    public ConcurrentIntIntSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue,
+            int concurrencyLevel) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        if (concurrencyLevel <= 0 || concurrencyLevel > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Concurrency level must be between 1 and " + MAX_SEGMENTS + ": " + concurrencyLevel);
+        }
+        this.noEntryKey = noEntryKey;
+        this.noEntryValue = noEntryValue;
+        int segmentBits = Integer.SIZE - Integer.numberOfLeadingZeros(concurrencyLevel - 1);
+        this.segments = new Segment[1 << segmentBits];
+        this.segmentShift = Long.SIZE - segmentBits;
+        int segmentExpectedSize = (expectedSize + segments.length - 1) / segments.length;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment(new IntIntSwissMap(segmentExpectedSize, loadFactor, noEntryKey, noEntryValue));
+        }
+    }
+
+    /**
+     * @return the number of segments, which is the concurrency level rounded up to a power of two
+     */
+    int getSegmentCount() {
+        return segments.length;
+    }
+
+    @Override
+    public int getNoEntryKey() {
+        return noEntryKey;
+    }
+
+    @Override
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    @Override
+    public int get(int key) {
+        long hash = mix(key);
+        Segment segment = segmentFor(hash);
+        StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                long value = segment.map.getOptimistically(key, hash);
+                if (lock.validate(stamp)) {
+                    return value == IntIntSwissMap.ABSENT ? noEntryValue : (int) value;
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // A write resized the table part way through the lookup, unless nothing was written at all
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        long hash = mix(key);
+        Segment segment = segmentFor(hash);
+        StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                long value = segment.map.getOptimistically(key, hash);
+                if (lock.validate(stamp)) {
+                    return value != IntIntSwissMap.ABSENT;
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // A write resized the table part way through the lookup, unless nothing was written at all
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return segment.map.containsKey(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int put(int key, int value) {
+        Segment segment = segmentFor(mix(key));
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int putIfAbsent(int key, int value) {
+        Segment segment = segmentFor(mix(key));
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.putIfAbsent(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Integer> map) {
+        for (Map.Entry<? extends Integer, ? extends Integer> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void putAll(TIntIntMap map) {
+        // Iterate rather than use forEachEntry, since another map may hold a lock while it calls the procedure
+        TIntIntIterator iter = map.iterator();
+        while (iter.hasNext()) {
+            iter.advance();
+            put(iter.key(), iter.value());
+        }
+    }
+
+    @Override
+    public int remove(int key) {
+        Segment segment = segmentFor(mix(key));
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean increment(int key) {
+        return adjustValue(key, 1);
+    }
+
+    @Override
+    public boolean adjustValue(int key, int amount) {
+        Segment segment = segmentFor(mix(key));
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.adjustValue(key, amount);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int adjustOrPutValue(int key, int adjustAmount, int putAmount) {
+        Segment segment = segmentFor(mix(key));
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.adjustOrPutValue(key, adjustAmount, putAmount);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Sums the sizes of the segments, each read at a different moment while writes continue
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                if (!segment.map.isEmpty()) {
+                    return false;
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public TIntSet keySet() {
+        return new IntIntMapViews.KeySet(this);
+    }
+
+    @Override
+    public int[] keys() {
+        return keys(new int[0]);
+    }
+
+    @Override
+    public int[] keys(int[] array) {
+        TIntArrayList keys = new TIntArrayList(array.length);
+        forEachKey(keys::add);
+        return toArray(keys, array);
+    }
+
+    @Override
+    public TIntCollection valueCollection() {
+        return new IntIntMapViews.Values(this);
+    }
+
+    @Override
+    public int[] values() {
+        return values(new int[0]);
+    }
+
+    @Override
+    public int[] values(int[] array) {
+        TIntArrayList values = new TIntArrayList(array.length);
+        forEachValue(values::add);
+        return toArray(values, array);
+    }
+
+    /**
+     * Copies the list into the array, or into a new array if it does not fit
+     */
+    private static int[] toArray(TIntArrayList list, int[] array) {
+        if (array.length < list.size()) {
+            array = new int[list.size()];
+        }
+        list.toArray(array, 0, list.size());
+        return array;
+    }
+
+    @Override
+    public boolean containsValue(int value) {
+        return !forEachValue(candidate -> candidate != value);
+    }
+
+    /**
+     * Iterates over a copy of each segment in turn, taken when the iterator reaches it.  Removing an entry or setting
+     * its value goes through the map, so it takes effect even though the copy is not updated.
+     */
+    @Override
+    public TIntIntIterator iterator() {
+        return new SegmentIterator();
+    }
+
+    @Override
+    public boolean forEachKey(TIntProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(key));
+    }
+
+    @Override
+    public boolean forEachValue(TIntProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(value));
+    }
+
+    @Override
+    public boolean forEachEntry(TIntIntProcedure procedure) {
+        for (Segment segment : segments) {
+            if (!segment.forEachEntry(procedure)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void transformValues(TIntFunction function) {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.map.transformValues(function);
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @Override
+    public boolean retainEntries(TIntIntProcedure procedure) {
+        boolean modified = false;
+        TIntArrayList rejectedKeys = new TIntArrayList();
+        TIntArrayList rejectedValues = new TIntArrayList();
+        for (Segment segment : segments) {
+            rejectedKeys.resetQuick();
+            rejectedValues.resetQuick();
+            segment.forEachEntry((key, value) -> {
+                if (!procedure.execute(key, value)) {
+                    rejectedKeys.add(key);
+                    rejectedValues.add(value);
+                }
+                return true;
+            });
+            if (rejectedKeys.isEmpty()) {
+                continue;
+            }
+            long stamp = segment.lock.writeLock();
+            try {
+                for (int i = 0; i < rejectedKeys.size(); i++) {
+                    // Keep an entry which was written again since the procedure rejected it
+                    int key = rejectedKeys.getQuick(i);
+                    if (segment.map.containsKey(key) && segment.map.get(key) == rejectedValues.getQuick(i)) {
+                        segment.map.remove(key);
+                        modified = true;
+                    }
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        return modified;
+    }
+
+    private Segment segmentFor(long hash) {
+        // Shifts in two steps, so that a single segment shifts the hash all the way out rather than by 64, a no-op
+        return segments[(int) (hash >>> 1 >>> segmentShift - 1)];
+    }
+
+    /**
+     * A table and the lock which guards it
+     */
+    private static final class Segment {
+        final StampedLock lock = new StampedLock();
+        final IntIntSwissMap map;
+
+        Segment(IntIntSwissMap map) {
+            this.map = map;
+        }
+
+        /**
+         * Copies the entries under the read lock, and calls the procedure on the copy once the lock is released
+         */
+        boolean forEachEntry(TIntIntProcedure procedure) {
+            int[] keys;
+            int[] values;
+            long stamp = lock.readLock();
+            try {
+                keys = map.keys();
+                values = map.values();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (!procedure.execute(keys[i], values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final class SegmentIterator implements TIntIntIterator {
+        private int segmentIndex;
+        private int[] keys = new int[0];
+        private int[] values = new int[0];
+        private int index = -1;
+        private boolean removed;
+
+        @Override
+        public boolean hasNext() {
+            while (index + 1 >= keys.length) {
+                if (segmentIndex >= segments.length) {
+                    return false;
+                }
+                Segment segment = segments[segmentIndex++];
+                long stamp = segment.lock.readLock();
+                try {
+                    keys = segment.map.keys();
+                    values = segment.map.values();
+                } finally {
+                    segment.lock.unlockRead(stamp);
+                }
+                index = -1;
+            }
+            return true;
+        }
+
+        @Override
+        public void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            index++;
+            removed = false;
+        }
+
+        @Override
+        public int key() {
+            return keys[index];
+        }
+
+        @Override
+        public int value() {
+            return values[index];
+        }
+
+        @Override
+        public int setValue(int val) {
+            if (index < 0 || removed) {
+                throw new IllegalStateException();
+            }
+            int oldValue = values[index];
+            put(keys[index], val);
+            values[index] = val;
+            return oldValue;
+        }
+
+        @Override
+        public void remove() {
+            if (index < 0 || removed) {
+                throw new IllegalStateException();
+            }
+            ConcurrentIntIntSwissMap.this.remove(keys[index]);
+            removed = true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.timdmeehan.trove.extras;
+
+/**
+ * An alternative to the SWAR probe of {@link IntIntSwissMap}, which matches several metadata bytes at once by some
+ * faster means.  The only implementation is {@code VectorGroupProbe}, which uses the incubating Vector API and so is
+ * compiled only on JDK 17 and later, into the versioned section of the multi-release JAR.
+ *
+ * Implementations must follow exactly the same probe sequence as the SWAR probe, so that they can be used against any
+ * table the map has built.
+ */
+interface GroupProbe {
+    /** Set this system property to true to probe with the Vector API where it is available */
+    String VECTOR_PROBE_PROPERTY = "com.timdmeehan.trove.extras.vectorProbe";
+
+    /**
+     * Finds the index of the given key in the table
+     *
+     * @param metadatas the metadata words of the table
+     * @param keys      the keys of the table
+     * @param mask      the mask which reduces a location into the table, rounded down to the start of a group
+     * @param location  the start of the probe sequence
+     * @param keyByte   the key byte of the key
+     * @param key       the key to look for
+     * @return the index of the key, or -1 if it is absent
+     */
+    int find(long[] metadatas, int[] keys, long mask, int location, long keyByte, int key);
+
+    /**
+     * @return the vector probe if it was requested through {@link #VECTOR_PROBE_PROPERTY} and is available, otherwise
+     * null
+     */
+    static GroupProbe load() {
+        return Boolean.getBoolean(VECTOR_PROBE_PROPERTY) ? loadVectorProbe() : null;
+    }
+
+    /**
+     * @return the vector probe if this JVM can run it, otherwise null
+     */
+    static GroupProbe loadVectorProbe() {
+        try {
+            Class<?> probeClass = Class.forName("com.timdmeehan.trove.extras.VectorGroupProbe");
+            return (GroupProbe) probeClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Older JDK, or the jdk.incubator.vector module was not added
+            return null;
+        }
+    }
+}
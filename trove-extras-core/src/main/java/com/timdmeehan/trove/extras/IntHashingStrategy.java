@@ -0,0 +1,47 @@
+package com.timdmeehan.trove.extras;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.timdmeehan.trove.extras.SwissTables.fmix64;
+
+/**
+ * Hashes the keys of an {@link IntIntSwissMap}, of a generated map with int keys such as {@link IntLongSwissMap}, or
+ * the elements of an {@link IntSwissSet}.  The low 7 bits of the hash are stored in the metadata byte of the key's
+ * slot, and the bits above them choose the group where its probe starts, so every bit of the result should depend on
+ * every bit of the key.
+ *
+ * The default hash is a fixed multiply and shift, so keys which collide under it collide on every JVM.  When the keys
+ * come from outside, a seeded strategy makes such collisions impossible to predict without knowing the seed.
+ */
+@FunctionalInterface
+public interface IntHashingStrategy {
+    /**
+     * The hash used when no strategy is given, which is the cheapest.  Maps created with it, or without a strategy,
+     * call it directly rather than through this interface.
+     */
+    IntHashingStrategy DEFAULT = SwissTables::mix;
+
+    /**
+     * @param key the key to hash
+     * @return the 64 bit hash of the key
+     */
+    long hash(int key);
+
+    /**
+     * Returns a strategy which mixes the key with the given seed using the finalizer of MurmurHash3.  This is not a
+     * cryptographic hash, but which keys collide depends on the seed.
+     *
+     * @param seed the seed to mix into every hash
+     * @return the seeded strategy
+     */
+    static IntHashingStrategy seeded(long seed) {
+        return key -> fmix64(key ^ seed);
+    }
+
+    /**
+     * @return a strategy as returned by {@link #seeded(long)} with a random seed
+     */
+    static IntHashingStrategy randomlySeeded() {
+        return seeded(ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -0,0 +1,391 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.function.TIntFunction;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+
+import java.util.Map;
+
+/**
+ * A Trove primitive integer to integer map which is rebuilt a little at a time rather than all at once.  It is made of
+ * {@link IntIntSwissMap} tables.  When the current table fills up, a new table of the size it would have been rebuilt
+ * at is created next to it, and every later update of the map moves {@link #MIGRATION_GROUPS} groups of the old table
+ * into the new one, until the old table is empty and dropped.  While both tables exist, every key is in exactly one of
+ * them, and lookups check the new table and then the old one.
+ *
+ * No single update ever moves more than a few dozen entries, so the latency of updates stays flat as the map grows, at
+ * the cost of a slower lookup of absent keys and up to 1.5 times the memory while a rebuild is in progress.  The new
+ * table is large enough that the old one is always emptied before the new one fills up.
+ */
+public class IntIntIncrementalSwissMap
+        implements TIntIntMap {
+    // Number of groups of the old table moved by each update, up to 8 entries each
+    private static final int MIGRATION_GROUPS = 4;
+
+    private final int expectedSize;
+    private final double loadFactor;
+    private final int noEntryKey;
+    private final int noEntryValue;
+    private final IntHashingStrategy hashingStrategy;
+
+    private IntIntSwissMap current;
+    // Null unless a rebuild is in progress
+    private IntIntSwissMap old;
+    // The next group of the old table to move
+    private int nextGroup;
+
+    public IntIntIncrementalSwissMap(double loadFactor, int noEntryKey, int noEntryValue) {
+        this(0, loadFactor, noEntryKey, noEntryValue);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rebuilt.
+     *
+     * @param expectedSize the number of entries the map is expected to hold
+     * @param loadFactor   the fraction of the table which may be used before it is rebuilt
+     * @param noEntryKey   the key which represents an absent key
+     * @param noEntryValue the value returned when a key is absent
+     */
+    public IntIntIncrementalSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue) {
+        this(expectedSize, loadFactor, noEntryKey, noEntryValue, IntHashingStrategy.DEFAULT);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rebuilt, and which hashes its keys with
+     * the given strategy.
+     *
+     * @param expectedSize    the number of entries the map is expected to hold
+     * @param loadFactor      the fraction of the table which may be used before it is rebuilt
+     * @param noEntryKey      the key which represents an absent key
+     * @param noEntryValue    the value returned when a key is absent
+     * @param hashingStrategy the hash of the keys
+     */
+    public IntIntIncrementalSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue,
+            IntHashingStrategy hashingStrategy) {
+        this.current = new IntIntSwissMap(expectedSize, loadFactor, noEntryKey, noEntryValue, hashingStrategy);
+        this.expectedSize = expectedSize;
+        this.loadFactor = loadFactor;
+        this.noEntryKey = noEntryKey;
+        this.noEntryValue = noEntryValue;
+        this.hashingStrategy = hashingStrategy;
+    }
+
+    /**
+     * Ensures that the map can hold desiredCapacity more entries than it currently holds without being rebuilt.  Unlike
+     * other updates, this finishes any rebuild in progress and may then rebuild the table all at once.
+     *
+     * @param desiredCapacity the number of entries which are about to be added
+     */
+    public void ensureCapacity(int desiredCapacity) {
+        finishMigration();
+        current.ensureCapacity(desiredCapacity);
+    }
+
+    /**
+     * Shrinks the table to the smallest power of two size which holds the current entries.  Unlike other updates, this
+     * finishes any rebuild in progress and then rebuilds the table all at once.
+     */
+    public void trimToSize() {
+        finishMigration();
+        current.trimToSize();
+    }
+
+    /**
+     * @return true if entries are still being moved from an old table into a new one
+     */
+    boolean isMigrating() {
+        return old != null;
+    }
+
+    /**
+     * @return the number of slots in the current table, used and unused
+     */
+    int capacity() {
+        return current.capacity();
+    }
+
+    @Override
+    public int getNoEntryKey() {
+        return noEntryKey;
+    }
+
+    @Override
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    @Override
+    public int put(int key, int value) {
+        prepareInsert();
+        if (old != null && old.containsKey(key)) {
+            int previous = old.remove(key);
+            current.put(key, value);
+            return previous;
+        }
+        return current.put(key, value);
+    }
+
+    @Override
+    public int putIfAbsent(int key, int value) {
+        prepareInsert();
+        if (old != null && old.containsKey(key)) {
+            return old.get(key);
+        }
+        return current.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Integer> map) {
+        for (Map.Entry<? extends Integer, ? extends Integer> entry : map.entrySet()) {
+            this.put(entry.getKey().intValue(), entry.getValue().intValue());
+        }
+    }
+
+    @Override
+    public void putAll(TIntIntMap map) {
+        TIntIntIterator iter = map.iterator();
+        while (iter.hasNext()) {
+            iter.advance();
+            put(iter.key(), iter.value());
+        }
+    }
+
+    @Override
+    public int get(int key) {
+        int value = current.get(key);
+        if (old == null || value != noEntryValue || current.containsKey(key)) {
+            return value;
+        }
+        return old.get(key);
+    }
+
+    @Override
+    public void clear() {
+        current = new IntIntSwissMap(expectedSize, loadFactor, noEntryKey, noEntryValue, hashingStrategy);
+        old = null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remove(int key) {
+        migrate();
+        if (old != null && old.containsKey(key)) {
+            return old.remove(key);
+        }
+        return current.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return old == null ? current.size() : current.size() + old.size();
+    }
+
+    @Override
+    public TIntSet keySet() {
+        return new IntIntMapViews.KeySet(this);
+    }
+
+    @Override
+    public int[] keys() {
+        return keys(new int[size()]);
+    }
+
+    @Override
+    public int[] keys(int[] array) {
+        int[] dest = array.length < size() ? new int[size()] : array;
+        int[] counter = {0};
+        forEachKey(key -> {
+            dest[counter[0]++] = key;
+            return true;
+        });
+        return dest;
+    }
+
+    @Override
+    public TIntCollection valueCollection() {
+        return new IntIntMapViews.Values(this);
+    }
+
+    @Override
+    public int[] values() {
+        return values(new int[size()]);
+    }
+
+    @Override
+    public int[] values(int[] array) {
+        int[] dest = array.length < size() ? new int[size()] : array;
+        int[] counter = {0};
+        forEachValue(value -> {
+            dest[counter[0]++] = value;
+            return true;
+        });
+        return dest;
+    }
+
+    @Override
+    public boolean containsValue(int value) {
+        return current.containsValue(value) || (old != null && old.containsValue(value));
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return current.containsKey(key) || (old != null && old.containsKey(key));
+    }
+
+    @Override
+    public TIntIntIterator iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public boolean forEachKey(TIntProcedure procedure) {
+        return current.forEachKey(procedure) && (old == null || old.forEachKey(procedure));
+    }
+
+    @Override
+    public boolean forEachValue(TIntProcedure procedure) {
+        return current.forEachValue(procedure) && (old == null || old.forEachValue(procedure));
+    }
+
+    @Override
+    public boolean forEachEntry(TIntIntProcedure procedure) {
+        return current.forEachEntry(procedure) && (old == null || old.forEachEntry(procedure));
+    }
+
+    @Override
+    public void transformValues(TIntFunction function) {
+        current.transformValues(function);
+        if (old != null) {
+            old.transformValues(function);
+        }
+    }
+
+    @Override
+    public boolean retainEntries(TIntIntProcedure procedure) {
+        boolean modified = current.retainEntries(procedure);
+        if (old != null) {
+            modified |= old.retainEntries(procedure);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean increment(int key) {
+        return adjustValue(key, 1);
+    }
+
+    @Override
+    public boolean adjustValue(int key, int adjustAmount) {
+        migrate();
+        return current.adjustValue(key, adjustAmount) || (old != null && old.adjustValue(key, adjustAmount));
+    }
+
+    @Override
+    public int adjustOrPutValue(int key, int adjustAmount, int putValue) {
+        prepareInsert();
+        if (old != null && old.adjustValue(key, adjustAmount)) {
+            return old.get(key);
+        }
+        return current.adjustOrPutValue(key, adjustAmount, putValue);
+    }
+
+    /**
+     * Moves the next few groups of the old table, and starts a rebuild if the current table would otherwise have to be
+     * rebuilt all at once by the next insert
+     */
+    private void prepareInsert() {
+        migrate();
+        if (current.isFull()) {
+            // Only a tiny load factor lets the new table fill up before the old one has been emptied
+            finishMigration();
+            old = current;
+            nextGroup = 0;
+            // Just under the resize threshold of the rebuild capacity, so that the new table has exactly that capacity
+            int expectedSize = (int) (loadFactor * old.getRebuildCapacity()) - 1;
+            current = new IntIntSwissMap(expectedSize, loadFactor, noEntryKey, noEntryValue, hashingStrategy);
+            migrate();
+        }
+    }
+
+    private void migrate() {
+        if (old != null) {
+            migrate(MIGRATION_GROUPS);
+        }
+    }
+
+    private void finishMigration() {
+        if (old != null) {
+            migrate(old.groupCount());
+        }
+    }
+
+    private void migrate(int groups) {
+        int end = Math.min(old.groupCount(), nextGroup + groups);
+        for (; nextGroup < end; nextGroup++) {
+            old.moveGroup(nextGroup, current);
+        }
+        if (nextGroup == old.groupCount()) {
+            old = null;
+        }
+    }
+
+    /**
+     * Iterates over the current table and then the old one
+     */
+    private final class Iterator implements TIntIntIterator {
+        private TIntIntIterator iterator = current.iterator();
+        private TIntIntIterator next = old == null ? null : old.iterator();
+        // The iterator which returned the current entry
+        private TIntIntIterator last;
+
+        @Override
+        public boolean hasNext() {
+            while (!iterator.hasNext()) {
+                if (next == null) {
+                    return false;
+                }
+                iterator = next;
+                next = null;
+            }
+            return true;
+        }
+
+        @Override
+        public void advance() {
+            hasNext();
+            iterator.advance();
+            last = iterator;
+        }
+
+        @Override
+        public int key() {
+            return last.key();
+        }
+
+        @Override
+        public int value() {
+            return last.value();
+        }
+
+        @Override
+        public int setValue(int val) {
+            return last.setValue(val);
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            last.remove();
+        }
+    }
+}
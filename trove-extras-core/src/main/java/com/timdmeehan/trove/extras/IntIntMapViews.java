@@ -0,0 +1,329 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.impl.HashFunctions;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Live key and value views of a {@link TIntIntMap}, for the maps in this package.  Nothing is copied: every operation
+ * goes through the map itself, so lookups use the map's own probe and scans use its own iteration.  Removals from a
+ * view remove the whole entry from the map, and bulk removals remove every entry whose key or value matches.  Adding
+ * to a view is not supported.
+ */
+final class IntIntMapViews {
+
+    private IntIntMapViews() {
+    }
+
+    /**
+     * Common base of the key and value views
+     */
+    private abstract static class View implements TIntCollection {
+        final TIntIntMap map;
+
+        View(TIntIntMap map) {
+            this.map = map;
+        }
+
+        /**
+         * @return the key or value of the entry the iterator is positioned at
+         */
+        abstract int get(TIntIntIterator iterator);
+
+        /**
+         * @return true if the entry should be kept by a bulk removal which keeps the values the procedure accepts
+         */
+        abstract boolean retain(int key, int value, TIntProcedure procedure);
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public TIntIterator iterator() {
+            TIntIntIterator iterator = map.iterator();
+            return new TIntIterator() {
+                @Override
+                public int next() {
+                    iterator.advance();
+                    return get(iterator);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        /**
+         * Marks the end of the collection in an array larger than the collection, as described by
+         * {@link TIntCollection#toArray(int[])}
+         */
+        int[] terminate(int[] dest) {
+            if (dest.length > size()) {
+                dest[size()] = getNoEntryValue();
+            }
+            return dest;
+        }
+
+        @Override
+        public boolean add(int entry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> collection) {
+            for (Object o : collection) {
+                if (!(o instanceof Integer) || !contains((Integer) o)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean containsAll(TIntCollection collection) {
+            return collection.forEach(this::contains);
+        }
+
+        @Override
+        public boolean containsAll(int[] array) {
+            for (int entry : array) {
+                if (!contains(entry)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Integer> collection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean addAll(TIntCollection collection) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean addAll(int[] array) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> collection) {
+            return retainIf(value -> collection.contains(value));
+        }
+
+        @Override
+        public boolean retainAll(TIntCollection collection) {
+            if (this == collection) {
+                return false;
+            }
+            return retainIf(collection::contains);
+        }
+
+        @Override
+        public boolean retainAll(int[] array) {
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+            return retainIf(value -> Arrays.binarySearch(sorted, value) >= 0);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> collection) {
+            return retainIf(value -> !collection.contains(value));
+        }
+
+        @Override
+        public boolean removeAll(TIntCollection collection) {
+            if (this == collection) {
+                boolean modified = !isEmpty();
+                clear();
+                return modified;
+            }
+            return retainIf(value -> !collection.contains(value));
+        }
+
+        @Override
+        public boolean removeAll(int[] array) {
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+            return retainIf(value -> Arrays.binarySearch(sorted, value) < 0);
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        private boolean retainIf(TIntProcedure procedure) {
+            return map.retainEntries((key, value) -> retain(key, value, procedure));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("{");
+            forEach(value -> {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(value);
+                return true;
+            });
+            return builder.append('}').toString();
+        }
+    }
+
+    /**
+     * A live {@link TIntSet} view of the keys of a map
+     */
+    static final class KeySet extends View implements TIntSet {
+
+        KeySet(TIntIntMap map) {
+            super(map);
+        }
+
+        @Override
+        int get(TIntIntIterator iterator) {
+            return iterator.key();
+        }
+
+        @Override
+        boolean retain(int key, int value, TIntProcedure procedure) {
+            return procedure.execute(key);
+        }
+
+        @Override
+        public int getNoEntryValue() {
+            return map.getNoEntryKey();
+        }
+
+        @Override
+        public boolean contains(int entry) {
+            return map.containsKey(entry);
+        }
+
+        @Override
+        public int[] toArray() {
+            return map.keys();
+        }
+
+        @Override
+        public int[] toArray(int[] dest) {
+            return terminate(map.keys(dest));
+        }
+
+        @Override
+        public boolean remove(int entry) {
+            int size = map.size();
+            map.remove(entry);
+            return map.size() != size;
+        }
+
+        @Override
+        public boolean forEach(TIntProcedure procedure) {
+            return map.forEachKey(procedure);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof TIntSet)) {
+                return false;
+            }
+            TIntSet that = (TIntSet) other;
+            return that.size() == size() && containsAll(that);
+        }
+
+        @Override
+        public int hashCode() {
+            int[] hashCode = {0};
+            map.forEachKey(key -> {
+                hashCode[0] += HashFunctions.hash(key);
+                return true;
+            });
+            return hashCode[0];
+        }
+    }
+
+    /**
+     * A live {@link TIntCollection} view of the values of a map
+     */
+    static final class Values extends View {
+
+        Values(TIntIntMap map) {
+            super(map);
+        }
+
+        @Override
+        int get(TIntIntIterator iterator) {
+            return iterator.value();
+        }
+
+        @Override
+        boolean retain(int key, int value, TIntProcedure procedure) {
+            return procedure.execute(value);
+        }
+
+        @Override
+        public int getNoEntryValue() {
+            return map.getNoEntryValue();
+        }
+
+        @Override
+        public boolean contains(int entry) {
+            return map.containsValue(entry);
+        }
+
+        @Override
+        public int[] toArray() {
+            return map.values();
+        }
+
+        @Override
+        public int[] toArray(int[] dest) {
+            return terminate(map.values(dest));
+        }
+
+        /**
+         * Removes the first entry found with the given value
+         */
+        @Override
+        public boolean remove(int entry) {
+            TIntIntIterator iterator = map.iterator();
+            while (iterator.hasNext()) {
+                iterator.advance();
+                if (iterator.value() == entry) {
+                    iterator.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean forEach(TIntProcedure procedure) {
+            return map.forEachValue(procedure);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.timdmeehan.trove.extras;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
+import static java.lang.Long.BYTES;
+
+/**
+ * A SwissTable inspired Trove primitive integer to integer map with the same behaviour and table layout as
+ * {@link IntIntPackedSwissMap}, but which keeps its table in direct memory, outside the Java heap.  A table of hundreds of
+ * millions of entries is then never scanned or copied by the garbage collector, and the heap need only be sized for
+ * everything else.
+ *
+ * A direct buffer holds at most 2 GB, so the table is split into pages of whole groups, each its own buffer.  Each group
+ * is its metadata word followed by its 8 entries, and each entry packs its key into the low half of a long and its value
+ * into the high half, so a lookup reads a single page.
+ *
+ * The map must be {@link #close() closed} once it is no longer needed.  On JDK 17 and later that frees its memory at
+ * once, as do rehashes for the table they replace; on older JVMs the memory is freed when the garbage collector next
+ * finds the buffers unreachable, which for a large table may be much later.  Any use of the map after it is closed,
+ * other than closing it again or asking for its no entry key or value, throws an {@link IllegalStateException}.
+ *
+ * The table logic is shared with {@link IntIntPackedSwissMap} through {@link PackedSwissTable}.
+ */
+public class IntIntOffHeapSwissMap
+        extends PackedSwissTable<ByteBuffer[]>
+        implements Closeable {
+    private static final BufferReleaser BUFFER_RELEASER = BufferReleaser.load();
+
+    // Number of bytes in a group: the metadata word, then one entry per metadata byte
+    private static final int GROUP_BYTES = (BYTES + 1) * BYTES;
+    // Pages of 2^24 groups are 1.125 GB, the largest power of two number of groups which fits in a direct buffer
+    private static final int DEFAULT_PAGE_SHIFT = 24;
+
+    // The index of a group's page is its index shifted down by this much
+    private final int pageShift;
+    private final int pageMask;
+
+    public IntIntOffHeapSwissMap(double loadFactor, int noEntryKey, int noEntryValue) {
+        this(0, loadFactor, noEntryKey, noEntryValue);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed.
+     *
+     * @param expectedSize the number of entries the map is expected to hold
+     * @param loadFactor   the fraction of the table which may be used before it is rehashed
+     * @param noEntryKey   the key which represents an absent key
+     * @param noEntryValue the value returned when a key is absent
+     */
+    public IntIntOffHeapSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue) {
+        this(expectedSize, loadFactor, noEntryKey, noEntryValue, DEFAULT_PAGE_SHIFT);
+    }
+
+    /**
+     * Creates a map whose pages hold 2^pageShift groups each, so that tests can cover tables of many pages without
+     * allocating gigabytes
+     */
+    IntIntOffHeapSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue, int pageShift) {
+        super(expectedSize, loadFactor, noEntryKey, noEntryValue);
+        this.pageShift = pageShift;
+        this.pageMask = (1 << pageShift) - 1;
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Frees the table.  The map must not be used afterwards, but closing it again does nothing.
+     */
+    @Override
+    public void close() {
+        if (table != null) {
+            releaseTable(table);
+            table = null;
+            filled = 0;
+            deleted = 0;
+        }
+    }
+
+    /**
+     * @return the number of direct buffers which hold the table
+     */
+    int getPageCount() {
+        return table().length;
+    }
+
+    @Override
+    public int get(int key) {
+        ByteBuffer[] pages = table();
+        long hash = mix(key);
+        long keyWord = fillWordWithByte(getKeyByte(hash));
+        int location = getLocationFromHash(hash);
+        int step = 0;
+        while (true) {
+            int group = keyIndexToMetadataIndex(location);
+            ByteBuffer page = pages[group >>> pageShift];
+            int offset = (group & pageMask) * GROUP_BYTES;
+            long metadata = page.getLong(offset);
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                long entry = page.getLong(offset + (1 + indexOfByte) * BYTES);
+                if (getKey(entry) == key) {
+                    return getValue(entry);
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            // Was not a match -- was there an empty entry or only tombstones and other keys?
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return noEntryValue;
+            }
+
+            // it was a tombstone
+            step += BYTES;
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Allocates an empty table of the given capacity, in as few pages as it fits in.  Direct buffers start zeroed, so
+     * every slot starts empty.
+     */
+    @Override
+    ByteBuffer[] allocateTable(int capacity) {
+        int groups = capacity / BYTES;
+        int groupsPerPage = Math.min(groups, 1 << pageShift);
+        ByteBuffer[] pages = new ByteBuffer[groups / groupsPerPage];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = ByteBuffer.allocateDirect(groupsPerPage * GROUP_BYTES).order(ByteOrder.nativeOrder());
+        }
+        return pages;
+    }
+
+    /**
+     * Frees the pages straight away rather than leaving them for the garbage collector
+     */
+    @Override
+    void releaseTable(ByteBuffer[] pages) {
+        for (ByteBuffer page : pages) {
+            BUFFER_RELEASER.release(page);
+        }
+    }
+
+    /**
+     * @return the pages of the table
+     * @throws IllegalStateException if the map has been closed
+     */
+    @Override
+    ByteBuffer[] table() {
+        ByteBuffer[] pages = table;
+        if (pages == null) {
+            throw new IllegalStateException("The map has been closed");
+        }
+        return pages;
+    }
+
+    @Override
+    long readMetadata(ByteBuffer[] pages, int group) {
+        return pages[group >>> pageShift].getLong((group & pageMask) * GROUP_BYTES);
+    }
+
+    @Override
+    void writeMetadata(ByteBuffer[] pages, int group, long metadata) {
+        pages[group >>> pageShift].putLong((group & pageMask) * GROUP_BYTES, metadata);
+    }
+
+    @Override
+    long readEntry(ByteBuffer[] pages, int location) {
+        int group = keyIndexToMetadataIndex(location);
+        return pages[group >>> pageShift].getLong(getEntryOffset(group, location));
+    }
+
+    @Override
+    void writeEntry(ByteBuffer[] pages, int location, long entry) {
+        int group = keyIndexToMetadataIndex(location);
+        pages[group >>> pageShift].putLong(getEntryOffset(group, location), entry);
+    }
+
+    /******************************************************************************************************************\
+     *                                                                                                                  *
+     * Bit functions                                                                                                    *
+     *                                                                                                                  *
+     \******************************************************************************************************************/
+
+    /**
+     * Returns the offset in its page of the entry at the given location, which is in the given group
+     */
+    private int getEntryOffset(int group, int location) {
+        return (group & pageMask) * GROUP_BYTES + (1 + keyIndexToMetadataWordIndex(location)) * BYTES;
+    }
+}
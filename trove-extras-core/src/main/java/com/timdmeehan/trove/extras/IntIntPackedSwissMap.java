@@ -0,0 +1,123 @@
+package com.timdmeehan.trove.extras;
+
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
+import static java.lang.Long.BYTES;
+
+/**
+ * A SwissTable inspired Trove primitive integer to integer map with the same behaviour as {@link IntIntSwissMap}, but
+ * which keeps the whole table in a single array.  Each group of 8 slots is stored as its metadata word followed by its
+ * 8 entries, and each entry packs its key into the low half of a long and its value into the high half.  A hit
+ * therefore touches the metadata and the entry, which are at most 72 bytes apart, rather than three separate arrays.
+ *
+ * This pays off when the table is much larger than the CPU caches and lookups are random.  Scans over only the keys or
+ * only the values read twice as much memory as they would with separate arrays.
+ *
+ * The table logic is shared with {@link IntIntOffHeapSwissMap} through {@link PackedSwissTable}.
+ */
+public class IntIntPackedSwissMap
+        extends PackedSwissTable<long[]> {
+    // Number of longs in a group: the metadata word, then one entry per metadata byte
+    private static final int GROUP_LONGS = BYTES + 1;
+
+    public IntIntPackedSwissMap(double loadFactor, int noEntryKey, int noEntryValue) {
+        this(0, loadFactor, noEntryKey, noEntryValue);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed.
+     *
+     * @param expectedSize the number of entries the map is expected to hold
+     * @param loadFactor   the fraction of the table which may be used before it is rehashed
+     * @param noEntryKey   the key which represents an absent key
+     * @param noEntryValue the value returned when a key is absent
+     */
+    public IntIntPackedSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue) {
+        super(expectedSize, loadFactor, noEntryKey, noEntryValue);
+        allocate(initialCapacity);
+    }
+
+    @Override
+    public int get(int key) {
+        long[] table = this.table;
+        long hash = mix(key);
+        long keyWord = fillWordWithByte(getKeyByte(hash));
+        int location = getLocationFromHash(hash);
+        int step = 0;
+        while (true) {
+            int group = getGroupOffset(location);
+            long metadata = table[group];
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                long entry = table[group + 1 + indexOfByte];
+                if (getKey(entry) == key) {
+                    return getValue(entry);
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            // Was not a match -- was there an empty entry or only tombstones and other keys?
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return noEntryValue;
+            }
+
+            // it was a tombstone
+            step += BYTES;
+            location = rangeReduction(location + step);
+        }
+    }
+
+    @Override
+    long[] allocateTable(int capacity) {
+        return new long[capacity / BYTES * GROUP_LONGS];
+    }
+
+    @Override
+    long readMetadata(long[] table, int group) {
+        return table[group * GROUP_LONGS];
+    }
+
+    @Override
+    void writeMetadata(long[] table, int group, long metadata) {
+        table[group * GROUP_LONGS] = metadata;
+    }
+
+    @Override
+    long readEntry(long[] table, int location) {
+        return table[getEntryOffset(location)];
+    }
+
+    @Override
+    void writeEntry(long[] table, int location, long entry) {
+        table[getEntryOffset(location)] = entry;
+    }
+
+    /******************************************************************************************************************\
+     *                                                                                                                  *
+     * Bit functions                                                                                                    *
+     *                                                                                                                  *
+     \******************************************************************************************************************/
+
+    /**
+     * Returns the offset in the table of the metadata word of the group which holds the given location
+     */
+    private static int getGroupOffset(int location) {
+        return keyIndexToMetadataIndex(location) * GROUP_LONGS;
+    }
+
+    /**
+     * Returns the offset in the table of the entry at the given location
+     */
+    private static int getEntryOffset(int location) {
+        return getGroupOffset(location) + 1 + keyIndexToMetadataWordIndex(location);
+    }
+}
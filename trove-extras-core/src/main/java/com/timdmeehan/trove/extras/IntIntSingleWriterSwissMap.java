@@ -0,0 +1,701 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.function.TIntFunction;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.timdmeehan.trove.extras.SwissTables.EMPTY_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.KEYS_MASK;
+import static com.timdmeehan.trove.extras.SwissTables.MOST_SIGNIFICANT_BYTE_BITS;
+import static com.timdmeehan.trove.extras.SwissTables.TOMBSTONE_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getByteAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfFreeByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.withKeyByte;
+import static java.lang.Long.BYTES;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * A SwissTable inspired Trove primitive integer to integer map for one writer thread and any number of reader threads,
+ * where reads never lock, retry or write to shared memory.
+ *
+ * The table has the layout of {@link IntIntPackedSwissMap}: each group is its metadata word followed by its 8 entries,
+ * and each entry packs its key and value into one long, so a reader can never see a key with another key's value.  The
+ * table is held in an {@link AtomicLongArray}, and the writer stores an entry before the metadata byte which publishes
+ * it, each with a release store, while readers load the metadata and then the entry with acquire loads.  A reader which
+ * finds a key byte therefore sees the entry written before it, or a later one.
+ *
+ * The writer never moves entries within a published table.  Rehashing, including dropping tombstones, builds a new table
+ * which is then published by replacing a volatile reference, and readers which are part way through the old table
+ * simply finish with it.
+ *
+ * Only one thread at a time may call the methods which modify the map; this is not checked.  The lookups, size, bulk
+ * reads and iteration are safe from any thread, and see each group as it was when they reached it.  An iterator's
+ * {@link TIntIntIterator#remove} and {@link TIntIntIterator#setValue} write through the map, so only the writer may call
+ * them.
+ */
+public class IntIntSingleWriterSwissMap
+        implements TIntIntMap {
+    private static final int INITIAL_SIZE = 16;
+    private static final int MAX_SIZE = 1 << 30;
+    // Tombstone ratio past which a full table is rebuilt at the same size rather than doubled
+    private static final double MAX_TOMBSTONE_RATIO = 0.5;
+    // Number of longs in a group: the metadata word, then one entry per metadata byte
+    private static final int GROUP_LONGS = BYTES + 1;
+    private static final long KEY_BITS = 0xFFFFFFFFL;
+
+    private final double loadFactor;
+    private final int noEntryKey;
+    private final int noEntryValue;
+    private final int initialCapacity;
+
+    // Replaced as a whole by the writer, so a reader always probes a table whose size and mask match its slots
+    private volatile Table table;
+    // Published by the writer after each change, so that readers need not count the entries themselves
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Only read and written by the writer
+    private int filled;
+    private int deleted;
+    private int resizeThreshold;
+
+    public IntIntSingleWriterSwissMap(double loadFactor, int noEntryKey, int noEntryValue) {
+        this(0, loadFactor, noEntryKey, noEntryValue);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed.
+     *
+     * @param expectedSize the number of entries the map is expected to hold
+     * @param loadFactor   the fraction of the table which may be used before it is rehashed
+     * @param noEntryKey   the key which represents an absent key
+     * @param noEntryValue the value returned when a key is absent
+     */
+    public IntIntSingleWriterSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        this.loadFactor = loadFactor;
+        this.noEntryKey = noEntryKey;
+        this.noEntryValue = noEntryValue;
+        this.initialCapacity = getCapacityFor(expectedSize);
+        clear();
+    }
+
+    /**
+     * Ensures that the map can hold desiredCapacity more entries than it currently holds without being rehashed.  Only
+     * the writer may call this.
+     *
+     * @param desiredCapacity the number of entries which are about to be added
+     */
+    public void ensureCapacity(int desiredCapacity) {
+        if (desiredCapacity > resizeThreshold - 1 - filled) {
+            rehash(Math.max(getCapacityFor(filled - deleted + desiredCapacity), table.capacity));
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest power of two size which holds the current entries below the resize threshold,
+     * dropping any tombstones along the way.  Only the writer may call this.
+     */
+    public void trimToSize() {
+        int newCapacity = getCapacityFor(filled - deleted);
+        if (newCapacity < table.capacity || deleted > 0) {
+            rehash(newCapacity);
+        }
+    }
+
+    @Override
+    public int getNoEntryKey() {
+        return noEntryKey;
+    }
+
+    @Override
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    @Override
+    public int get(int key) {
+        long entry = table.lookup(key);
+        return getKey(entry) == key ? getValue(entry) : noEntryValue;
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return getKey(table.lookup(key)) == key;
+    }
+
+    @Override
+    public int put(int key, int value) {
+        Table table = this.table;
+        long hash = mix(key);
+        long keyByte = getKeyByte(hash);
+        int location = table.find(key, keyByte, hash);
+
+        if (location >= 0) {
+            int offset = getEntryOffset(location);
+            int oldValue = getValue(table.slots.get(offset));
+            table.slots.lazySet(offset, getEntry(key, value));
+            return oldValue;
+        }
+
+        insertAt(table, -location - 1, key, value, keyByte);
+        return noEntryValue;
+    }
+
+    @Override
+    public int putIfAbsent(int key, int value) {
+        Table table = this.table;
+        long hash = mix(key);
+        long keyByte = getKeyByte(hash);
+        int location = table.find(key, keyByte, hash);
+
+        if (location >= 0) {
+            return getValue(table.slots.get(getEntryOffset(location)));
+        }
+
+        insertAt(table, -location - 1, key, value, keyByte);
+        return noEntryValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Integer> map) {
+        ensureCapacity(map.size());
+        for (Map.Entry<? extends Integer, ? extends Integer> entry : map.entrySet()) {
+            this.put(entry.getKey().intValue(), entry.getValue().intValue());
+        }
+    }
+
+    @Override
+    public void putAll(TIntIntMap map) {
+        ensureCapacity(map.size());
+        TIntIntIterator iter = map.iterator();
+        while (iter.hasNext()) {
+            iter.advance();
+            put(iter.key(), iter.value());
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.filled = 0;
+        this.deleted = 0;
+        resizeThreshold = (int) (loadFactor * initialCapacity);
+        table = new Table(initialCapacity, new AtomicLongArray(initialCapacity / BYTES * GROUP_LONGS));
+        size.lazySet(0);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of slots in the table, used and unused
+     */
+    int capacity() {
+        return table.capacity;
+    }
+
+    @Override
+    public int remove(int key) {
+        Table table = this.table;
+        int prev = noEntryValue;
+        int location = table.find(key);
+        if (location >= 0) {
+            prev = getValue(table.slots.get(getEntryOffset(location)));
+            removeAt(table, location);
+        }
+        return prev;
+    }
+
+    /**
+     * Removes the entry at the given location by publishing its metadata byte as empty or as a tombstone, as in
+     * {@link IntIntPackedSwissMap}.  The entry itself is left in place for any reader which already matched it.
+     */
+    private void removeAt(Table table, int location) {
+        int group = getGroupOffset(location);
+        int metadataWordIndex = keyIndexToMetadataWordIndex(location);
+        long metadata = table.slots.get(group);
+        if (getIndexOfZeroByte(metadata) <= 7) {
+            table.slots.lazySet(group, withKeyByte(metadata, metadataWordIndex, EMPTY_BYTE));
+            filled--;
+        } else {
+            table.slots.lazySet(group, withKeyByte(metadata, metadataWordIndex, TOMBSTONE_BYTE));
+            deleted++;
+        }
+        size.lazySet(filled - deleted);
+    }
+
+    /**
+     * Inserts the entry at the given free location, which is either empty or a tombstone.  The entry is stored before
+     * its key byte, so that no reader can match the key byte and then load an older entry.  If the table has run out of
+     * empty slots it is rebuilt at the same size when mostly tombstones, and at double the size otherwise.
+     */
+    private void insertAt(Table table, int location, int key, int value, long keyByte) {
+        int group = getGroupOffset(location);
+        int metadataWordIndex = keyIndexToMetadataWordIndex(location);
+        long metadata = table.slots.get(group);
+        table.slots.lazySet(group + 1 + metadataWordIndex, getEntry(key, value));
+        if (getByteAtIndex(metadata, metadataWordIndex) == TOMBSTONE_BYTE) {
+            // Reusing a tombstone does not consume an empty slot
+            deleted--;
+        } else {
+            filled++;
+        }
+        table.slots.lazySet(group, withKeyByte(metadata, metadataWordIndex, keyByte));
+        size.lazySet(filled - deleted);
+        if (filled >= resizeThreshold) {
+            if (deleted > filled * MAX_TOMBSTONE_RATIO) {
+                rehash(table.capacity);
+            } else {
+                rehash(table.capacity * 2);
+            }
+        }
+    }
+
+    @Override
+    public TIntSet keySet() {
+        return new IntIntMapViews.KeySet(this);
+    }
+
+    @Override
+    public int[] keys() {
+        return keys(new int[0]);
+    }
+
+    @Override
+    public int[] keys(int[] array) {
+        TIntArrayList keys = new TIntArrayList(array.length);
+        forEachKey(keys::add);
+        return toArray(keys, array);
+    }
+
+    @Override
+    public TIntCollection valueCollection() {
+        return new IntIntMapViews.Values(this);
+    }
+
+    @Override
+    public int[] values() {
+        return values(new int[0]);
+    }
+
+    @Override
+    public int[] values(int[] array) {
+        TIntArrayList values = new TIntArrayList(array.length);
+        forEachValue(values::add);
+        return toArray(values, array);
+    }
+
+    /**
+     * Copies the list into the array, or into a new array if it does not fit.  A reader cannot size the array up front,
+     * as the writer may change the map during the scan.
+     */
+    private static int[] toArray(TIntArrayList list, int[] array) {
+        if (array.length < list.size()) {
+            array = new int[list.size()];
+        }
+        list.toArray(array, 0, list.size());
+        return array;
+    }
+
+    @Override
+    public boolean containsValue(int value) {
+        return !forEachValue(v -> v != value);
+    }
+
+    @Override
+    public TIntIntIterator iterator() {
+        return new Iterator(table);
+    }
+
+    @Override
+    public boolean forEachKey(TIntProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(key));
+    }
+
+    @Override
+    public boolean forEachValue(TIntProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(value));
+    }
+
+    @Override
+    public boolean forEachEntry(TIntIntProcedure procedure) {
+        AtomicLongArray slots = table.slots;
+        for (int group = 0; group < slots.length(); group += GROUP_LONGS) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = slots.get(group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                long entry = slots.get(group + 1 + indexInByte);
+                if (!procedure.execute(getKey(entry), getValue(entry))) {
+                    return false;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void transformValues(TIntFunction function) {
+        AtomicLongArray slots = table.slots;
+        for (int group = 0; group < slots.length(); group += GROUP_LONGS) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = slots.get(group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                int offset = group + 1 + indexInByte;
+                long entry = slots.get(offset);
+                slots.lazySet(offset, getEntry(getKey(entry), function.execute(getValue(entry))));
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+    }
+
+    @Override
+    public boolean retainEntries(TIntIntProcedure procedure) {
+        Table table = this.table;
+        AtomicLongArray slots = table.slots;
+        boolean modified = false;
+
+        for (int group = 0; group < slots.length(); group += GROUP_LONGS) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = slots.get(group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                long entry = slots.get(group + 1 + indexInByte);
+                if (!procedure.execute(getKey(entry), getValue(entry))) {
+                    removeAt(table, group / GROUP_LONGS * BYTES + indexInByte);
+                    modified = true;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean increment(int key) {
+        return adjustValue(key, 1);
+    }
+
+    @Override
+    public boolean adjustValue(int key, int adjustAmount) {
+        Table table = this.table;
+        int location = table.find(key);
+
+        // Location present, adjust the value
+        if (location >= 0) {
+            int offset = getEntryOffset(location);
+            table.slots.lazySet(offset, table.slots.get(offset) + ((long) adjustAmount << 32)); // Overflow out of the value falls off the top
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int adjustOrPutValue(int key, int adjustAmount, int putValue) {
+        Table table = this.table;
+        long hash = mix(key);
+        long keyByte = getKeyByte(hash);
+        int location = table.find(key, keyByte, hash);
+
+        // Location present, adjust the value
+        if (location >= 0) {
+            int offset = getEntryOffset(location);
+            long entry = table.slots.get(offset) + ((long) adjustAmount << 32);
+            table.slots.lazySet(offset, entry);
+            return getValue(entry);
+        }
+        insertAt(table, -location - 1, key, putValue, keyByte);
+        return putValue;
+    }
+
+    /**
+     * Copies the live entries into a new table of the given capacity, leaving the tombstones behind, and publishes it.
+     * The new slots are filled with lazy writes, as no reader can see them until the table is published.
+     */
+    private void rehash(int newCapacity) {
+        AtomicLongArray oldSlots = table.slots;
+        AtomicLongArray slots = new AtomicLongArray(newCapacity / BYTES * GROUP_LONGS);
+        long mask = newCapacity - 1 & KEYS_MASK;
+        int size = 0;
+
+        for (int oldGroup = 0; oldGroup < oldSlots.length(); oldGroup += GROUP_LONGS) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = oldSlots.get(oldGroup) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int oldIndex = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                long entry = oldSlots.get(oldGroup + 1 + oldIndex);
+                long hash = mix(getKey(entry));
+
+                int location = (int) (hash >>> 7 & mask);
+                int group = getGroupOffset(location);
+                int indexOfZeroByte;
+                int step = 0;
+                while ((indexOfZeroByte = getIndexOfZeroByte(slots.get(group))) > 7) {
+                    step += BYTES;
+                    location = (int) (location + step & mask);
+                    group = getGroupOffset(location);
+                }
+                slots.lazySet(group, withKeyByte(slots.get(group), indexOfZeroByte, getKeyByte(hash)));
+                slots.lazySet(group + 1 + indexOfZeroByte, entry);
+                size++;
+                metadata = unsetBitAtIndex(metadata, oldIndex);
+            }
+        }
+        filled = size;
+        deleted = 0;
+        resizeThreshold = (int) (loadFactor * newCapacity);
+        table = new Table(newCapacity, slots);
+    }
+
+    /**
+     * Returns the smallest power of two table size which holds the given number of entries without reaching the resize
+     * threshold
+     */
+    private int getCapacityFor(int size) {
+        int capacity = INITIAL_SIZE;
+        while (capacity < MAX_SIZE && (int) (loadFactor * capacity) <= size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * One published table.  Its size never changes, so a reader which loaded it once may probe it to the end however
+     * the writer changes the map in the meantime.
+     */
+    private static final class Table {
+        final AtomicLongArray slots;
+        final int capacity;
+        final long mask;
+
+        Table(int capacity, AtomicLongArray slots) {
+            this.slots = slots;
+            this.capacity = capacity;
+            this.mask = capacity - 1 & KEYS_MASK;
+        }
+
+        /**
+         * Returns the entry of the key, or an entry with a different key if it is absent, so that the key and value
+         * come from the same load.  This may be called from any thread.  The probe always
+         * ends: removes only empty a slot in a group which already has one, so the groups with an empty slot can only
+         * dwindle, and the writer publishes a new table before the last of them fills up.
+         */
+        long lookup(int key) {
+            AtomicLongArray slots = this.slots;
+            long hash = mix(key);
+            long keyWord = fillWordWithByte(getKeyByte(hash));
+            int location = getLocationFromHash(hash);
+            int step = 0;
+            while (true) {
+                int group = getGroupOffset(location);
+                long metadata = slots.get(group);
+                long candidates = metadata;
+                int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+                while (indexOfByte <= 7) {
+                    long entry = slots.get(group + 1 + indexOfByte);
+                    if (getKey(entry) == key) {
+                        return entry;
+                    }
+                    candidates = unsetBitAtIndex(candidates, indexOfByte);
+                    indexOfByte = getIndexOfByte(candidates, keyWord);
+                }
+
+                // Was not a match -- was there an empty entry or only tombstones and other keys?
+                if (getIndexOfZeroByte(metadata) <= 7) {
+                    return ~key & KEY_BITS;
+                }
+
+                // it was a tombstone
+                step += BYTES;
+                location = rangeReduction(location + step);
+            }
+        }
+
+        int find(int key) {
+            long hash = mix(key);
+            return find(key, getKeyByte(hash), hash);
+        }
+
+        /**
+         * Returns the location of the key if there is a match.  Returns (-location - 1) of the first free space along
+         * the probe sequence if there was no match, where a free space is either an empty slot or a tombstone.  Only
+         * the writer calls this.
+         */
+        int find(int key, long keyByte, long hash) {
+            long keyWord = fillWordWithByte(keyByte);
+            int location = getLocationFromHash(hash);
+            int firstFree = -1;
+            int step = 0;
+            while (true) {
+                int group = getGroupOffset(location);
+                long metadata = slots.get(group);
+                long candidates = metadata;
+                int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+                while (indexOfByte <= 7) {
+                    if (getKey(slots.get(group + 1 + indexOfByte)) == key) {
+                        return location + indexOfByte;
+                    }
+                    candidates = unsetBitAtIndex(candidates, indexOfByte);
+                    indexOfByte = getIndexOfByte(candidates, keyWord);
+                }
+
+                // Remember the first tombstone or empty slot, so that an insert can reuse it
+                if (firstFree < 0) {
+                    indexOfByte = getIndexOfFreeByte(metadata);
+                    if (indexOfByte <= 7) {
+                        firstFree = location + indexOfByte;
+                    }
+                }
+
+                // Was not a match -- was there an empty entry or only tombstones and other keys?
+                if (getIndexOfZeroByte(metadata) <= 7) {
+                    return -(firstFree + 1);
+                }
+
+                // it was a tombstone
+                step += BYTES;
+                location = rangeReduction(location + step);
+            }
+        }
+
+        private int getLocationFromHash(long hash) {
+            return rangeReduction(hash >>> 7);
+        }
+
+        private int rangeReduction(long h1) {
+            return (int) (h1 & mask); // Mask should always be less than integer max value
+        }
+    }
+
+    /**
+     * A {@link TIntIntIterator} over the table which was published when it was created, read one group at a time.  Each
+     * entry is loaded once when the iterator advances to it, so its key and value always belong together.
+     */
+    private final class Iterator implements TIntIntIterator {
+        private final AtomicLongArray slots;
+        private int group = -GROUP_LONGS;
+        private long remaining;
+        private long entry;
+        private boolean current;
+
+        Iterator(Table table) {
+            this.slots = table.slots;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (remaining == 0) {
+                if (group + GROUP_LONGS >= slots.length()) {
+                    return false;
+                }
+                group += GROUP_LONGS;
+                // Returns the flipped 8th bits of key bytes which are present
+                remaining = slots.get(group) & MOST_SIGNIFICANT_BYTE_BITS;
+            }
+            return true;
+        }
+
+        @Override
+        public void advance() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(remaining)); // Returns the index of the first present key byte
+            entry = slots.get(group + 1 + indexInByte);
+            remaining = unsetBitAtIndex(remaining, indexInByte);
+            current = true;
+        }
+
+        @Override
+        public int key() {
+            return getKey(entry);
+        }
+
+        @Override
+        public int value() {
+            return getValue(entry);
+        }
+
+        @Override
+        public int setValue(int val) {
+            if (!current) {
+                throw new IllegalStateException();
+            }
+            int oldValue = getValue(entry);
+            put(getKey(entry), val);
+            entry = getEntry(getKey(entry), val);
+            return oldValue;
+        }
+
+        @Override
+        public void remove() {
+            if (!current) {
+                throw new IllegalStateException();
+            }
+            IntIntSingleWriterSwissMap.this.remove(getKey(entry));
+            current = false;
+        }
+    }
+
+    /******************************************************************************************************************\
+     *                                                                                                                  *
+     * Bit functions                                                                                                    *
+     *                                                                                                                  *
+     \******************************************************************************************************************/
+
+    /**
+     * Returns the offset in the table of the metadata word of the group which holds the given location
+     */
+    private static int getGroupOffset(int location) {
+        return keyIndexToMetadataIndex(location) * GROUP_LONGS;
+    }
+
+    /**
+     * Returns the offset in the table of the entry at the given location
+     */
+    private static int getEntryOffset(int location) {
+        return getGroupOffset(location) + 1 + keyIndexToMetadataWordIndex(location);
+    }
+
+    private static long getEntry(int key, int value) {
+        return ((long) value << 32) | (key & KEY_BITS);
+    }
+
+    private static int getKey(long entry) {
+        return (int) entry;
+    }
+
+    private static int getValue(long entry) {
+        return (int) (entry >>> 32);
+    }
+}
@@ -3,56 +3,155 @@ package com.timdmeehan.trove.extras;
 import gnu.trove.TIntCollection;
 import gnu.trove.function.TIntFunction;
 import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.list.array.TIntArrayList;
 import gnu.trove.map.TIntIntMap;
 import gnu.trove.procedure.TIntIntProcedure;
 import gnu.trove.procedure.TIntProcedure;
 import gnu.trove.set.TIntSet;
 
+import java.util.ConcurrentModificationException;
 import java.util.Map;
-
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import static com.timdmeehan.trove.extras.SwissTables.MOST_SIGNIFICANT_BYTE_BITS;
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getByteAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+import static com.timdmeehan.trove.extras.SwissTables.setKeyByteInMetadata;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
 import static java.lang.Long.BYTES;
 import static java.lang.Long.numberOfTrailingZeros;
-import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
 
 /**
  * An implementation of a Trove primitive integer to integer map which is inspired by SwissTable.
+ *
+ * When the group where a probe starts is full, the probe moves on triangularly, as SwissTable does: to the next
+ * group, then two groups further, then three, and so on.  This visits every group of a power of two table, and unlike
+ * stepping one group at a time it does not let runs of full groups grow into each other.  The probing, removal and
+ * compaction of the table are shared with the generated maps of other key and value types through {@link SwissTable}.
+ *
+ * On JDK 17 and later, lookups can match 16 metadata bytes at a time with the incubating Vector API rather than 8 at a
+ * time with SWAR.  Run with {@code --add-modules jdk.incubator.vector} and
+ * {@code -Dcom.timdmeehan.trove.extras.vectorProbe=true} to enable it.
  */
 public class IntIntSwissMap
+        extends SwissTable
         implements TIntIntMap {
-    // Copied from SmoothieMap implementation of SwissTable
-    private static final long LEAST_SIGNIFICANT_BYTE_BITS = 0x0101010101010101L;
-    private static final long MOST_SIGNIFICANT_BYTE_BITS = 0x8080808080808080L;
-    // Copied from fastutil
-    /**
-     * 2<sup>32</sup> &middot; &phi;, &phi; = (&#x221A;5 &minus; 1)/2.
-     */
-    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
-    private static final int INITIAL_SIZE = 16;
-    private static final long METADATA_MASK = 0x7;
-    private static final long KEYS_MASK = ~METADATA_MASK;
-    private static final long H2_MASK = 0x7F;
-    private static final long KEY_BYTE_MASK = 0x80;
     private static final int[] EMPTY_ARRAY = {};
+    // Number of keys whose probes are interleaved by the batch operations
+    private static final int BATCH_SIZE = 16;
+    // Smallest table which is rehashed in parallel when a rehash pool is set
+    private static final int PARALLEL_REHASH_MIN_CAPACITY = 1 << 16;
+    // Number of groups of the old table which a parallel rehash task takes without splitting
+    private static final int REHASH_TASK_GROUPS = 1 << 12;
+    // Number of groups which a task of a parallel bulk operation takes without splitting
+    private static final int SCAN_TASK_GROUPS = 1 << 12;
+    // Null unless the Vector API probe was requested and is available, in which case lookups use it instead of SWAR
+    private static final GroupProbe GROUP_PROBE = GroupProbe.load();
+    // Returned by getOptimistically for an absent key, which no int value can be mistaken for
+    static final long ABSENT = Long.MIN_VALUE;
 
-    private final double loadFactor;
     private final int noEntryKey;
     private final int noEntryValue;
+    // Null for the default hash, which is then called directly so that it can be inlined
+    private final IntHashingStrategy hashingStrategy;
 
-    private long[] metadatas;
     private int[] keys;
     private int[] values;
-    private long mask;
-    private int filled;
-    private int deleted;
-    private int resizeThreshold;
+    private boolean autoShrink;
+    private ForkJoinPool rehashPool;
 
     public IntIntSwissMap(double loadFactor, int noEntryKey, int noEntryValue) {
-        this.loadFactor = loadFactor;
+        this(0, loadFactor, noEntryKey, noEntryValue);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed.
+     *
+     * @param expectedSize the number of entries the map is expected to hold
+     * @param loadFactor   the fraction of the table which may be used before it is rehashed
+     * @param noEntryKey   the key which represents an absent key
+     * @param noEntryValue the value returned when a key is absent
+     */
+    public IntIntSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue) {
+        this(expectedSize, loadFactor, noEntryKey, noEntryValue, IntHashingStrategy.DEFAULT);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed, and which hashes its keys with
+     * the given strategy.  Use {@link IntHashingStrategy#randomlySeeded()} when the keys may be chosen by an attacker.
+     *
+     * @param expectedSize    the number of entries the map is expected to hold
+     * @param loadFactor      the fraction of the table which may be used before it is rehashed
+     * @param noEntryKey      the key which represents an absent key
+     * @param noEntryValue    the value returned when a key is absent
+     * @param hashingStrategy the hash of the keys
+     */
+    public IntIntSwissMap(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue,
+            IntHashingStrategy hashingStrategy) {
+        super(expectedSize, loadFactor);
         this.noEntryKey = noEntryKey;
         this.noEntryValue = noEntryValue;
+        requireNonNull(hashingStrategy, "hashingStrategy is null");
+        this.hashingStrategy = hashingStrategy == IntHashingStrategy.DEFAULT ? null : hashingStrategy;
         clear();
     }
 
+    /**
+     * Sets whether the table shrinks automatically as entries are removed.  When enabled, the table is halved (or
+     * more) once it falls below a quarter of its resize threshold, leaving it half full so that a few inserts will not
+     * grow it straight back.  It never shrinks below the size it was created with.
+     *
+     * @param autoShrink true to shrink automatically, false to only ever grow (the default)
+     */
+    public void setAutoShrink(boolean autoShrink) {
+        this.autoShrink = autoShrink;
+    }
+
+    /**
+     * @return true if the table shrinks automatically as entries are removed
+     */
+    public boolean isAutoShrink() {
+        return autoShrink;
+    }
+
+    /**
+     * Sets the pool on which a large table is rehashed as it grows.  The hashing strategy of the map is then called from
+     * the threads of the pool, so it must be thread safe, as the default and seeded strategies are.  Smaller tables,
+     * shrinking and compaction are always done on the calling thread.
+     *
+     * @param rehashPool the pool to rehash on, or null to always rehash on the calling thread (the default)
+     */
+    public void setRehashPool(ForkJoinPool rehashPool) {
+        this.rehashPool = rehashPool;
+    }
+
+    /**
+     * @return the pool on which a large table is rehashed as it grows, or null if it is rehashed on the calling thread
+     */
+    public ForkJoinPool getRehashPool() {
+        return rehashPool;
+    }
+
     @Override
     public int getNoEntryKey() {
         return noEntryKey;
@@ -65,45 +164,37 @@ public class IntIntSwissMap
 
     @Override
     public int put(int key, int value) {
-        long hash = mix(key);
+        long hash = hash(key);
         long keyByte = getKeyByte(hash);
         int location = find(key, keyByte, hash);
 
-        int oldValue = location >= 0 ? values[location] : noEntryValue;
-        location = location >= 0 ? location : -location - 1;
-        keys[location] = key;
-        values[location] = value;
-        addKeyByteToMetadata(metadatas, keyIndexToMetadataIndex(location), keyIndexToMetadataWordIndex(location), keyByte);
-        if (++filled == resizeThreshold) {
-            rehash();
+        if (location >= 0) {
+            int oldValue = values[location];
+            values[location] = value;
+            return oldValue;
         }
-        return oldValue;
+
+        insertAt(-location - 1, key, value, keyByte);
+        return noEntryValue;
     }
 
     @Override
     public int putIfAbsent(int key, int value) {
-        long hash = mix(key);
+        long hash = hash(key);
         long keyByte = getKeyByte(hash);
         int location = find(key, keyByte, hash);
 
         if (location >= 0) {
-            return getNoEntryValue();
+            return values[location];
         }
 
-        location = -location - 1;
-        keys[location] = key;
-        values[location] = value;
-        addKeyByteToMetadata(metadatas, keyIndexToMetadataIndex(location), keyIndexToMetadataWordIndex(location), keyByte);
-        if (++filled == resizeThreshold) {
-            rehash();
-        }
+        insertAt(-location - 1, key, value, keyByte);
         return getNoEntryValue();
     }
 
     @Override
     public void putAll(Map<? extends Integer, ? extends Integer> map) {
-        // TODO: add bulk rehash method #ensureCapacity
-        // ensureCapacity( map.size() );
+        ensureCapacity(map.size());
         // TODO: could optimize this for cases when map instanceof THashMap
         for (Map.Entry<? extends Integer, ? extends Integer> entry : map.entrySet()) {
             this.put(entry.getKey().intValue(), entry.getValue().intValue());
@@ -112,8 +203,11 @@ public class IntIntSwissMap
 
     @Override
     public void putAll(TIntIntMap map) {
-        // TODO: add bulk rehash method #ensureCapacity
-        // ensureCapacity( map.size() );
+        if (map instanceof IntIntSwissMap) {
+            putAll((IntIntSwissMap) map);
+            return;
+        }
+        ensureCapacity(map.size());
         TIntIntIterator iter = map.iterator();
         while (iter.hasNext()) {
             iter.advance();
@@ -121,49 +215,277 @@ public class IntIntSwissMap
         }
     }
 
+    /**
+     * When both maps hash the same way, an empty map of the same capacity can copy the other table wholesale, and
+     * otherwise each entry is placed using the key byte already stored in the other map.  When this map is empty the
+     * entries are known to be distinct, so they are placed without comparing any keys.
+     */
+    private void putAll(IntIntSwissMap map) {
+        ensureCapacity(map.size());
+        boolean sameHash = hashingStrategy == map.hashingStrategy;
+        if (sameHash && filled == 0 && keys.length == map.keys.length) {
+            System.arraycopy(map.metadatas, 0, metadatas, 0, metadatas.length);
+            System.arraycopy(map.keys, 0, keys, 0, keys.length);
+            System.arraycopy(map.values, 0, values, 0, values.length);
+            filled = map.filled;
+            deleted = map.deleted;
+            if (filled >= resizeThreshold) {
+                // The other map may have a higher load factor, but dropping its tombstones is always enough room
+                compact();
+            }
+            return;
+        }
+
+        boolean empty = filled == 0;
+        long[] otherMetadatas = map.metadatas;
+        for (int i = 0; i < otherMetadatas.length; i++) {
+            long metadata = otherMetadatas[i];
+            // Returns the flipped 8th bits of key bytes which are present
+            long present = metadata & MOST_SIGNIFICANT_BYTE_BITS;
+            while (present != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(present)); // Returns the index of the first present key byte
+                int index = i * BYTES + indexInByte;
+                int key = map.keys[index];
+                int value = map.values[index];
+                long hash = hash(key);
+                long keyByte = sameHash ? getByteAtIndex(metadata, indexInByte) : getKeyByte(hash);
+                if (empty) {
+                    int location = findFree(getLocationFromHash(hash));
+                    keys[location] = key;
+                    values[location] = value;
+                    setKeyByteInMetadata(metadatas, keyIndexToMetadataIndex(location), keyIndexToMetadataWordIndex(location), keyByte);
+                    filled++;
+                } else {
+                    int location = find(key, keyByte, hash);
+                    if (location >= 0) {
+                        values[location] = value;
+                    } else {
+                        insertAt(-location - 1, key, value, keyByte);
+                    }
+                }
+                present = unsetBitAtIndex(present, indexInByte);
+            }
+        }
+    }
+
     @Override
     public int get(int key) {
-        long hash = mix(key);
-        long keyByte = getKeyByte(hash);
+        long hash = hash(key);
+
+        if (GROUP_PROBE != null) {
+            int index = GROUP_PROBE.find(metadatas, keys, mask, getLocationFromHash(hash), getKeyByte(hash), key);
+            return index >= 0 ? values[index] : noEntryValue;
+        }
 
-        long keyWord = fillWordWithByte(keyByte);
-        int location = getLocationFromHash(hash);
-        while (true) {
+        int index = indexOf(key, hash);
+        return index >= 0 ? values[index] : noEntryValue;
+    }
+
+    /**
+     * Looks up a key without holding the lock which guards this map, under an optimistic read of a
+     * {@link java.util.concurrent.locks.StampedLock}.  A concurrent write may leave the table fields inconsistent with
+     * each other, so each of them is read once, and the probe gives up after visiting as many groups as the table has.
+     * The result means nothing unless the caller's stamp is still valid afterwards, and the caller must treat an
+     * {@link ArrayIndexOutOfBoundsException} as an invalid read too.
+     *
+     * @param key  the key to look up
+     * @param hash the hash of the key, as this map computes it
+     * @return the value of the key, or {@link #ABSENT} if the key is absent or the probe gave up
+     */
+    long getOptimistically(int key, long hash) {
+        long[] metadatas = this.metadatas;
+        int[] keys = this.keys;
+        int[] values = this.values;
+        long mask = this.mask;
+        long keyWord = fillWordWithByte(getKeyByte(hash));
+        int location = (int) (hash >>> 7 & mask);
+        int step = 0;
+        for (int groups = 0; groups < metadatas.length; groups++) {
             long metadata = metadatas[keyIndexToMetadataIndex(location)];
-            int indexOfByte = getIndexOfByte(metadata, keyWord);
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
 
             while (indexOfByte <= 7) {
                 if (keys[location + indexOfByte] == key) {
                     return values[location + indexOfByte];
                 }
-                metadata = unsetBitAtIndex(metadata, indexOfByte);
-                indexOfByte = getIndexOfByte(metadata, keyWord);
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return ABSENT;
+            }
+
+            step += BYTES;
+            location = (int) (location + step & mask);
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Looks up a batch of keys, storing the value of keys[offset + i] in out[offset + i], or the no entry value if the
+     * key is absent.  The probes of several keys are interleaved so that their cache misses overlap.
+     *
+     * @param keys   the keys to look up
+     * @param offset the index of the first key to look up
+     * @param length the number of keys to look up
+     * @param out    the array which receives the values
+     */
+    public void getAll(int[] keys, int offset, int length, int[] out) {
+        checkRange(keys.length, offset, length);
+        checkRange(out.length, offset, length);
+        BatchProbe probe = new BatchProbe();
+        for (int start = offset, end = offset + length; start < end; start += BATCH_SIZE) {
+            int batchEnd = Math.min(start + BATCH_SIZE, end);
+            int[] indexes = probe.find(keys, start, batchEnd);
+            for (int i = start; i < batchEnd; i++) {
+                int index = indexes[i - start];
+                out[i] = index >= 0 ? values[index] : noEntryValue;
+            }
+        }
+    }
+
+    /**
+     * Tests a batch of keys for presence, storing whether keys[offset + i] is present in out[offset + i].  The probes
+     * of several keys are interleaved so that their cache misses overlap.
+     *
+     * @param keys   the keys to look up
+     * @param offset the index of the first key to look up
+     * @param length the number of keys to look up
+     * @param out    the array which receives the results
+     */
+    public void containsKeys(int[] keys, int offset, int length, boolean[] out) {
+        checkRange(keys.length, offset, length);
+        checkRange(out.length, offset, length);
+        BatchProbe probe = new BatchProbe();
+        for (int start = offset, end = offset + length; start < end; start += BATCH_SIZE) {
+            int batchEnd = Math.min(start + BATCH_SIZE, end);
+            int[] indexes = probe.find(keys, start, batchEnd);
+            for (int i = start; i < batchEnd; i++) {
+                out[i] = indexes[i - start] >= 0;
             }
+        }
+    }
 
-            // Was not a match -- was there an empty entry or a tombstone?
-            indexOfByte = getIndexOfZeroByte(metadata);
-            if (indexOfByte <= 7) {
-                return noEntryValue;
+    /**
+     * Tests whether every key in a batch is present, interleaving the probes of several keys so that their cache
+     * misses overlap.
+     *
+     * @param keys   the keys to look up
+     * @param offset the index of the first key to look up
+     * @param length the number of keys to look up
+     * @return true if every key is present, false otherwise
+     */
+    public boolean containsAllKeys(int[] keys, int offset, int length) {
+        checkRange(keys.length, offset, length);
+        BatchProbe probe = new BatchProbe();
+        for (int start = offset, end = offset + length; start < end; start += BATCH_SIZE) {
+            int batchEnd = Math.min(start + BATCH_SIZE, end);
+            int[] indexes = probe.find(keys, start, batchEnd);
+            for (int i = 0; i < batchEnd - start; i++) {
+                if (indexes[i] < 0) {
+                    return false;
+                }
             }
+        }
+        return true;
+    }
 
-            // it was a tombstone
-            location = rangeReduction(location + 8);
+    /**
+     * Puts a batch of entries, keys[offset + i] mapping to values[offset + i].  Each block of keys is hashed and has
+     * its first metadata group loaded before any of its entries are inserted, so that the cache misses of different
+     * keys overlap.  Room is made one block at a time, since a batch may repeat keys many times over.
+     *
+     * @param keys   the keys to put
+     * @param values the values to put
+     * @param offset the index of the first entry to put
+     * @param length the number of entries to put
+     */
+    public void putAll(int[] keys, int[] values, int offset, int length) {
+        checkRange(keys.length, offset, length);
+        checkRange(values.length, offset, length);
+        BatchProbe probe = new BatchProbe();
+        for (int start = offset, end = offset + length; start < end; start += BATCH_SIZE) {
+            int batchEnd = Math.min(start + BATCH_SIZE, end);
+            // Before hashing, as a rehash would move the groups which the probe loads
+            ensureCapacity(batchEnd - start);
+            long[] hashes = probe.hash(keys, start, batchEnd);
+            for (int i = start; i < batchEnd; i++) {
+                long hash = hashes[i - start];
+                long keyByte = getKeyByte(hash);
+                int location = find(keys[i], keyByte, hash);
+                if (location >= 0) {
+                    this.values[location] = values[i];
+                } else {
+                    insertAt(-location - 1, keys[i], values[i], keyByte);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds deltas[i] to the value of each keys[i] if present, and otherwise puts putValue for it, as if by calling
+     * {@link #adjustOrPutValue(int, int, int)} for each key.
+     *
+     * @param keys     the keys whose values to adjust
+     * @param deltas   the amounts to adjust the values by
+     * @param putValue the value to put for absent keys
+     */
+    public void adjustOrPutValues(int[] keys, int[] deltas, int putValue) {
+        adjustOrPutValues(keys, deltas, 0, keys.length, putValue);
+    }
+
+    /**
+     * Adds deltas[offset + i] to the value of each keys[offset + i] if present, and otherwise puts putValue for it, as
+     * if by calling {@link #adjustOrPutValue(int, int, int)} for each key.  Each block of keys is hashed and has its
+     * first metadata group loaded before any of its entries are updated, so that the cache misses of different keys
+     * overlap.  Room is made one block at a time, since a batch usually has far fewer distinct keys than rows.
+     *
+     * @param keys     the keys whose values to adjust
+     * @param deltas   the amounts to adjust the values by
+     * @param offset   the index of the first key to adjust
+     * @param length   the number of keys to adjust
+     * @param putValue the value to put for absent keys
+     */
+    public void adjustOrPutValues(int[] keys, int[] deltas, int offset, int length, int putValue) {
+        checkRange(keys.length, offset, length);
+        checkRange(deltas.length, offset, length);
+        BatchProbe probe = new BatchProbe();
+        for (int start = offset, end = offset + length; start < end; start += BATCH_SIZE) {
+            int batchEnd = Math.min(start + BATCH_SIZE, end);
+            // Before hashing, as a rehash would move the groups which the probe loads
+            ensureCapacity(batchEnd - start);
+            long[] hashes = probe.hash(keys, start, batchEnd);
+            for (int i = start; i < batchEnd; i++) {
+                long hash = hashes[i - start];
+                long keyByte = getKeyByte(hash);
+                int location = find(keys[i], keyByte, hash);
+                if (location >= 0) {
+                    values[location] += deltas[i];
+                } else {
+                    insertAt(-location - 1, keys[i], putValue, keyByte);
+                }
+            }
+        }
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array length " + arrayLength);
         }
     }
 
     @Override
     public void clear() {
-        this.filled = 0;
-        metadatas = new long[INITIAL_SIZE / BYTES]; // metadata int represents 4 bytes of metadata
-        keys = new int[INITIAL_SIZE];
-        values = new int[INITIAL_SIZE];
-        mask = keys.length - 1 & KEYS_MASK;
-        resizeThreshold = (int) (loadFactor * keys.length);
+        allocate(initialCapacity);
     }
 
     @Override
-    public boolean isEmpty() {
-        return (filled - deleted) == 0;
+    void allocate(int capacity) {
+        super.allocate(capacity);
+        keys = new int[capacity];
+        values = new int[capacity];
     }
 
     @Override
@@ -173,26 +495,91 @@ public class IntIntSwissMap
         if (index >= 0) {
             prev = values[index];
             removeAt(index);
+            shrinkIfSparse();
         }
         return prev;
     }
 
-    private void removeAt(int index) {
-        int metadatasIndex = keyIndexToMetadataIndex(rangeReduction(index));
-        int byteIndex = keyIndexToMetadataWordIndex(index);
-        metadatas[metadatasIndex] = unsetBitAtIndex(metadatas[metadatasIndex], byteIndex);
-        deleted++;
+    private void shrinkIfSparse() {
+        int size = filled - deleted;
+        if (autoShrink && size < resizeThreshold / 4 && keys.length > initialCapacity) {
+            rehash(Math.max(initialCapacity, getCapacityFor(size * 2)));
+        }
+    }
+
+    /**
+     * Inserts the entry at the given free location, which is either empty or a tombstone.  If the table has run out of
+     * empty slots it is compacted in place when mostly tombstones, and doubled in size otherwise.
+     */
+    private void insertAt(int location, int key, int value, long keyByte) {
+        keys[location] = key;
+        values[location] = value;
+        occupy(location, keyByte);
+    }
+
+    /**
+     * Moves every entry of the given group into the target map, which must not contain any of their keys.  The group is
+     * left with only empty slots and tombstones, so that probes for keys in later groups still pass through it.
+     *
+     * @param metadataIndex the group to move
+     * @param target        the map to move the entries into
+     */
+    void moveGroup(int metadataIndex, IntIntSwissMap target) {
+        // Returns the flipped 8th bits of key bytes which are present
+        long present = metadatas[metadataIndex] & MOST_SIGNIFICANT_BYTE_BITS;
+        while (present != 0) {
+            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(present)); // Returns the index of the first present key byte
+            int index = metadataIndex * BYTES + indexInByte;
+            target.insertAbsent(keys[index], values[index]);
+            removeAt(index);
+            present = unsetBitAtIndex(present, indexInByte);
+        }
+    }
+
+    /**
+     * Inserts a key which is known to be absent, without comparing it against any other key
+     */
+    private void insertAbsent(int key, int value) {
+        long hash = hash(key);
+        insertAt(findFree(getLocationFromHash(hash)), key, value, getKeyByte(hash));
+    }
+
+    @Override
+    long hashAt(int index) {
+        return hash(keys[index]);
+    }
+
+    @Override
+    long keyAt(int index) {
+        return keys[index];
     }
 
     @Override
-    public int size() {
-        return filled;
+    void moveEntry(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+    }
+
+    @Override
+    void swapEntries(int first, int second) {
+        int key = keys[first];
+        int value = values[first];
+        keys[first] = keys[second];
+        values[first] = values[second];
+        keys[second] = key;
+        values[second] = value;
+    }
+
+    /**
+     * @return the hashing strategy of this map
+     */
+    IntHashingStrategy getHashingStrategy() {
+        return hashingStrategy == null ? IntHashingStrategy.DEFAULT : hashingStrategy;
     }
 
     @Override
     public TIntSet keySet() {
-        // TODO
-        return null;
+        return new IntIntMapViews.KeySet(this);
     }
 
     @Override
@@ -222,8 +609,7 @@ public class IntIntSwissMap
 
     @Override
     public TIntCollection valueCollection() {
-        // TODO
-        return null;
+        return new IntIntMapViews.Values(this);
     }
 
     @Override
@@ -271,13 +657,77 @@ public class IntIntSwissMap
 
     @Override
     public boolean containsKey(int key) {
+        if (GROUP_PROBE != null) {
+            long hash = hash(key);
+            return GROUP_PROBE.find(metadatas, keys, mask, getLocationFromHash(hash), getKeyByte(hash), key) >= 0;
+        }
         return find(key) >= 0;
     }
 
     @Override
     public TIntIntIterator iterator() {
-        // TODO
-        return null;
+        return cursor();
+    }
+
+    /**
+     * Returns an iterator over the entries of this map which may be reset and reused for another pass, so that hot
+     * loops need not allocate a new iterator each time.
+     *
+     * @return a new cursor positioned before the first entry
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns a stream of the keys of this map.  The stream reads the table directly rather than a copy of it, and a
+     * parallel stream splits it into ranges of metadata groups, so the map must not be modified until the stream has
+     * been consumed.
+     *
+     * @return a stream of the keys of this map
+     */
+    public IntStream keyStream() {
+        return StreamSupport.intStream(new KeySpliterator(), false);
+    }
+
+    /**
+     * Returns a stream of the values of this map, which like {@link #keyStream()} reads the table directly.
+     *
+     * @return a stream of the values of this map
+     */
+    public IntStream valueStream() {
+        return StreamSupport.intStream(new ValueSpliterator(), false);
+    }
+
+    /**
+     * Returns a stream of the entries of this map, which like {@link #keyStream()} reads the table directly.  Each
+     * entry is packed into a long with the key in its high half and the value in its low half, so that sorting the
+     * entries sorts them by key, and may be unpacked with {@link #getEntryKey(long)} and {@link #getEntryValue(long)}.
+     *
+     * @return a stream of the packed entries of this map
+     */
+    public LongStream entryStream() {
+        return StreamSupport.longStream(new EntrySpliterator(), false);
+    }
+
+    /**
+     * @param entry an entry of {@link #entryStream()}
+     * @return the key of the entry
+     */
+    public static int getEntryKey(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    /**
+     * @param entry an entry of {@link #entryStream()}
+     * @return the value of the entry
+     */
+    public static int getEntryValue(long entry) {
+        return (int) entry;
+    }
+
+    private static long packEntry(int key, int value) {
+        return ((long) key << 32) | (value & 0xFFFFFFFFL);
     }
 
     @Override
@@ -318,7 +768,11 @@ public class IntIntSwissMap
 
     @Override
     public boolean forEachEntry(TIntIntProcedure procedure) {
-        for (int i = 0; i < metadatas.length; i++) {
+        return forEachEntry(procedure, 0, metadatas.length);
+    }
+
+    private boolean forEachEntry(TIntIntProcedure procedure, int from, int to) {
+        for (int i = from; i < to; i++) {
             long metadata = metadatas[i];
             // Returns the flipped 8th bits of key bytes which are present
             metadata = metadata & MOST_SIGNIFICANT_BYTE_BITS;
@@ -336,7 +790,11 @@ public class IntIntSwissMap
 
     @Override
     public void transformValues(TIntFunction function) {
-        for (int i = 0; i < metadatas.length; i++) {
+        transformValues(function, 0, metadatas.length);
+    }
+
+    private void transformValues(TIntFunction function, int from, int to) {
+        for (int i = from; i < to; i++) {
             long metadata = metadatas[i];
             // Returns the flipped 8th bits of key bytes which are present
             metadata = metadata & MOST_SIGNIFICANT_BYTE_BITS;
@@ -368,9 +826,108 @@ public class IntIntSwissMap
             }
         }
 
+        if (modified) {
+            shrinkIfSparse();
+        }
+        return modified;
+    }
+
+    /**
+     * Executes the procedure for each entry of this map, on the given pool.  The table is split into ranges of groups
+     * which are scanned concurrently, so the procedure must be thread safe, sees the entries in no particular order,
+     * and must not modify the map.  Once it returns false for any entry, the scan stops as soon as every task notices,
+     * so it may still be executed for a few more entries.
+     *
+     * @param procedure the procedure to execute for each entry
+     * @param pool      the pool to scan the table on
+     * @return false if the procedure returned false for any entry
+     */
+    public boolean parallelForEachEntry(TIntIntProcedure procedure, ForkJoinPool pool) {
+        AtomicBoolean stopped = new AtomicBoolean();
+        scan(pool, (from, to) -> {
+            for (int i = from; i < to && !stopped.get(); i++) {
+                if (!forEachEntry(procedure, i, i + 1)) {
+                    stopped.set(true);
+                }
+            }
+        });
+        return !stopped.get();
+    }
+
+    /**
+     * Transforms the value of each entry of this map with the function, on the given pool.  Each task only writes the
+     * values of its own range of groups, so no locking is needed, but the function must be thread safe.
+     *
+     * @param function the function to transform the values with
+     * @param pool     the pool to scan the table on
+     */
+    public void parallelTransformValues(TIntFunction function, ForkJoinPool pool) {
+        scan(pool, (from, to) -> transformValues(function, from, to));
+    }
+
+    /**
+     * Removes every entry of this map for which the procedure returns false, on the given pool.  Each task only writes
+     * the metadata of its own range of groups, and counts the slots it empties and the tombstones it leaves, which are
+     * added to the counts of the map even if the procedure throws.  The procedure must be thread safe and must not
+     * modify the map.
+     *
+     * @param procedure the procedure which decides whether to keep each entry
+     * @param pool      the pool to scan the table on
+     * @return true if any entry was removed
+     */
+    public boolean parallelRetainEntries(TIntIntProcedure procedure, ForkJoinPool pool) {
+        LongAdder emptied = new LongAdder();
+        LongAdder tombstoned = new LongAdder();
+        try {
+            scan(pool, (from, to) -> {
+                int emptiedSlots = 0;
+                int tombstones = 0;
+                try {
+                    for (int i = from; i < to; i++) {
+                        // Returns the flipped 8th bits of key bytes which are present
+                        long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+                        while (metadata != 0) {
+                            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                            int index = i * BYTES + indexInByte;
+                            if (!procedure.execute(keys[index], values[index])) {
+                                if (erase(index)) {
+                                    emptiedSlots++;
+                                } else {
+                                    tombstones++;
+                                }
+                            }
+                            metadata = unsetBitAtIndex(metadata, indexInByte);
+                        }
+                    }
+                } finally {
+                    emptied.add(emptiedSlots);
+                    tombstoned.add(tombstones);
+                }
+            });
+        } finally {
+            filled -= emptied.intValue();
+            deleted += tombstoned.intValue();
+        }
+        boolean modified = emptied.sum() + tombstoned.sum() > 0;
+        if (modified) {
+            shrinkIfSparse();
+        }
         return modified;
     }
 
+    /**
+     * Scans the table in ranges of {@link #SCAN_TASK_GROUPS} groups on the pool, or on the calling thread if the table
+     * is no larger than one range
+     */
+    private void scan(ForkJoinPool pool, GroupScan scan) {
+        requireNonNull(pool, "pool is null");
+        if (metadatas.length <= SCAN_TASK_GROUPS) {
+            scan.scan(0, metadatas.length);
+        } else {
+            pool.invoke(new ScanTask(scan, 0, metadatas.length));
+        }
+    }
+
     @Override
     public boolean increment(int key) {
         int location = find(key);
@@ -397,7 +954,7 @@ public class IntIntSwissMap
 
     @Override
     public int adjustOrPutValue(int key, int adjustAmount, int putValue) {
-        long hash = mix(key);
+        long hash = hash(key);
         long keyByte = getKeyByte(hash);
         int location = find(key, keyByte, hash);
         int newValue;
@@ -406,164 +963,699 @@ public class IntIntSwissMap
         if (location >= 0) {
             newValue = (values[location] += adjustAmount);
         } else {
-            location = -location - 1;
-            keys[location] = key;
-            newValue = (values[location] = putValue);
-            addKeyByteToMetadata(metadatas, keyIndexToMetadataIndex(location), keyIndexToMetadataWordIndex(location), keyByte);
-            if (++filled == resizeThreshold) {
-                rehash();
-            }
+            newValue = putValue;
+            insertAt(-location - 1, key, putValue, keyByte);
         }
         return newValue;
     }
 
-    private int find(int key) {
-        long hash = mix(key);
-        return find(key, getKeyByte(hash), hash);
+    /**
+     * Returns the value of the key, or the given default if it is absent, so that a value equal to the no entry value
+     * can be told apart from an absent key without a second lookup.
+     *
+     * @param key          the key to look up
+     * @param defaultValue the value to return if the key is absent
+     * @return the value of the key, or defaultValue
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        int location = find(key);
+        return location >= 0 ? values[location] : defaultValue;
     }
 
     /**
-     * Returns the first index of either a match or free location if there is a match.  Returns (-location + 1) of the
-     * first free space if there was no match.  It is presumed that the table is never full.
+     * Sets the value of the key to the result of the function, which is given the key and its current value, or the
+     * no entry value if it is absent.  The key is looked up once, and the result is stored whether or not the key was
+     * present.  The function must not modify the map.
+     *
+     * @param key      the key whose value to compute
+     * @param function the function of the key and its current value
+     * @return the new value of the key
+     * @throws ConcurrentModificationException if the function modified the map
      */
-    private int find(int key, long keyByte, long hash) {
-        long keyWord = fillWordWithByte(keyByte);
-        int location = getLocationFromHash(hash);
-        while (true) {
-            long metadata = metadatas[keyIndexToMetadataIndex(location)];
-            int indexOfByte = getIndexOfByte(metadata, keyWord);
+    public int compute(int key, IntBinaryOperator function) {
+        long hash = hash(key);
+        long keyByte = getKeyByte(hash);
+        int location = find(key, keyByte, hash);
+        int expectedSize = size();
+        long[] expectedMetadatas = metadatas;
 
-            while (indexOfByte <= 7) {
-                if (keys[location + indexOfByte] == key) {
-                    return location + indexOfByte;
-                }
-                metadata = unsetBitAtIndex(metadata, indexOfByte);
-                indexOfByte = getIndexOfByte(metadata, keyWord);
-            }
+        if (location >= 0) {
+            int newValue = function.applyAsInt(key, values[location]);
+            checkForComodification(expectedSize, expectedMetadatas);
+            values[location] = newValue;
+            return newValue;
+        }
+        int newValue = function.applyAsInt(key, noEntryValue);
+        checkForComodification(expectedSize, expectedMetadatas);
+        insertAt(-location - 1, key, newValue, keyByte);
+        return newValue;
+    }
 
-            // Was not a match -- was there an empty entry or a tombstone?
-            indexOfByte = getIndexOfZeroByte(metadata);
-            if (indexOfByte <= 7) {
-                return -(location + indexOfByte + 1);
-            }
+    /**
+     * Returns the value of the key, or if it is absent, inserts the result of the function of the key and returns
+     * that.  The key is looked up once either way.  The function must not modify the map.
+     *
+     * @param key      the key whose value to return
+     * @param function the function which computes the value of an absent key
+     * @return the current or newly inserted value of the key
+     * @throws ConcurrentModificationException if the function modified the map
+     */
+    public int computeIfAbsent(int key, IntUnaryOperator function) {
+        long hash = hash(key);
+        long keyByte = getKeyByte(hash);
+        int location = find(key, keyByte, hash);
 
-            // it was a tombstone
-            location = rangeReduction(location + 8);
+        if (location >= 0) {
+            return values[location];
         }
+        int expectedSize = size();
+        long[] expectedMetadatas = metadatas;
+        int newValue = function.applyAsInt(key);
+        checkForComodification(expectedSize, expectedMetadatas);
+        insertAt(-location - 1, key, newValue, keyByte);
+        return newValue;
     }
 
-    private void rehash() {
-        int[] newKeys = new int[keys.length * 2];
-        int[] newValues = new int[values.length * 2];
-        long[] newMetadatas = new long[metadatas.length * 2];
-        mask = newKeys.length - 1 & KEYS_MASK;
-        resizeThreshold = (int) (loadFactor * newKeys.length);
+    /**
+     * Inserts the value if the key is absent, and otherwise sets the value of the key to the result of the function of
+     * its current value and the given one.  The key is looked up once, so that counting is a single probe with
+     * {@code merge(key, 1, Integer::sum)}.  The function must not modify the map.
+     *
+     * @param key      the key whose value to merge
+     * @param value    the value to insert, or to merge with the current value
+     * @param function the function of the current value and the given one
+     * @return the new value of the key
+     * @throws ConcurrentModificationException if the function modified the map
+     */
+    public int merge(int key, int value, IntBinaryOperator function) {
+        long hash = hash(key);
+        long keyByte = getKeyByte(hash);
+        int location = find(key, keyByte, hash);
 
-        for (int i = 0; i < metadatas.length; i++) {
-            long metadata = metadatas[i];
+        if (location >= 0) {
+            int expectedSize = size();
+            long[] expectedMetadatas = metadatas;
+            int newValue = function.applyAsInt(values[location], value);
+            checkForComodification(expectedSize, expectedMetadatas);
+            values[location] = newValue;
+            return newValue;
+        }
+        insertAt(-location - 1, key, value, keyByte);
+        return value;
+    }
+
+    /**
+     * A slot found before calling a function is only still valid if the function neither added nor removed entries
+     */
+    private void checkForComodification(int expectedSize, long[] expectedMetadatas) {
+        if (size() != expectedSize || metadatas != expectedMetadatas) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private int find(int key) {
+        return indexOf(key, hash(key));
+    }
+
+    /**
+     * Returns the number of groups which a lookup of the given key visits, whether or not the key is present.  This is
+     * a diagnostic for how well keys are spread over the table, and is not used by the map itself.
+     *
+     * @param key the key to look up
+     * @return the number of groups visited, at least 1
+     */
+    public int getProbeLength(int key) {
+        return getProbeLength(key, hash(key));
+    }
+
+    /**
+     * Finds the key with the given probe rather than SWAR, so that other probes can be tested against this table
+     *
+     * @return the index of the key, or -1 if it is absent
+     */
+    int find(GroupProbe probe, int key) {
+        long hash = hash(key);
+        return probe.find(metadatas, keys, mask, getLocationFromHash(hash), getKeyByte(hash), key);
+    }
+
+    @Override
+    void rehash(int newCapacity) {
+        if (rehashPool != null && keys.length >= PARALLEL_REHASH_MIN_CAPACITY && newCapacity >= keys.length) {
+            parallelRehash(newCapacity);
+            return;
+        }
+        int size = filled - deleted;
+        long[] oldMetadatas = metadatas;
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        long[] newMetadatas = metadatas;
+        int[] newKeys = keys;
+        int[] newValues = values;
+
+        for (int i = 0; i < oldMetadatas.length; i++) {
+            long metadata = oldMetadatas[i];
             // Returns the flipped 8th bits of key bytes which are present
             metadata = metadata & MOST_SIGNIFICANT_BYTE_BITS;
             while (metadata != 0) {
                 int oldIndex = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
-                int key = keys[i * BYTES + oldIndex];
-                int value = values[i * BYTES + oldIndex];
+                int key = oldKeys[i * BYTES + oldIndex];
+                int value = oldValues[i * BYTES + oldIndex];
 
-                long hash = mix(key);
+                long hash = hash(key);
                 long keyByte = getKeyByte(hash);
 
                 int location = getLocationFromHash(hash);
                 int metadataIndex = keyIndexToMetadataIndex(location);
                 long newMetadata = newMetadatas[metadataIndex];
                 int indexOfZeroByte;
+                int step = 0;
                 while ((indexOfZeroByte = getIndexOfZeroByte(newMetadata)) > 7) {
-                    location = rangeReduction(location + 8);
+                    step += BYTES;
+                    location = rangeReduction(location + step);
                     newMetadata = newMetadatas[(metadataIndex = keyIndexToMetadataIndex(location))];
                 }
-                addKeyByteToMetadata(newMetadatas, metadataIndex, indexOfZeroByte, keyByte);
+                setKeyByteInMetadata(newMetadatas, metadataIndex, indexOfZeroByte, keyByte);
                 newKeys[location + indexOfZeroByte] = key;
                 newValues[location + indexOfZeroByte] = value;
                 metadata = unsetBitAtIndex(metadata, oldIndex);
             }
         }
-        keys = newKeys;
-        values = newValues;
-        metadatas = newMetadatas;
+        filled = size;
     }
 
-    /******************************************************************************************************************\
-     *                                                                                                                  *
-     * Bit functions                                                                                                    *
-     *                                                                                                                  *
-     \******************************************************************************************************************/
-
-    private static int keyIndexToMetadataIndex(int location) {
-        return location >>> 3; // Equivalent to location / Long.BYTES
+    /**
+     * Rehashes the table into one at least as large on the rehash pool.  The old table is split into ranges of groups,
+     * and each {@link RehashTask} places the entries of its range whose probe in the new table both starts and ends in
+     * the groups it owns, deferring the rest, which are then placed on the calling thread.  Every entry still goes to
+     * the first group of its probe sequence which had room for it when it was placed, and groups only ever fill up, so
+     * the table is the same as if the entries had been placed one at a time in some other order.
+     */
+    private void parallelRehash(int newCapacity) {
+        int size = filled - deleted;
+        long[] oldMetadatas = metadatas;
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+
+        TIntArrayList deferred = rehashPool.invoke(new RehashTask(oldMetadatas, oldKeys, oldValues, 0, oldMetadatas.length));
+        for (int i = 0; i < deferred.size(); i++) {
+            int oldIndex = deferred.getQuick(i);
+            int key = oldKeys[oldIndex];
+            long hash = hash(key);
+            int location = findFree(getLocationFromHash(hash));
+            keys[location] = key;
+            values[location] = oldValues[oldIndex];
+            setKeyByteInMetadata(metadatas, keyIndexToMetadataIndex(location), keyIndexToMetadataWordIndex(location), getKeyByte(hash));
+        }
+        filled = size;
     }
 
-    private static int keyIndexToMetadataWordIndex(int location) {
-        return (int) (location & METADATA_MASK); // // Equivalent to location % Long.BYTES
-    }
+    /**
+     * Rehashes a range of groups of the old table into the new one, which is already in place.  The new table has a
+     * power of two multiple of the old number of groups, so the groups where the entries of the range start their
+     * probes in the new table form one block per multiple, at the same offsets as the range.  Those blocks are owned by
+     * this task.  An entry which was displaced into the range from an earlier group may start its probe outside them,
+     * and an entry may probe past the end of its block; neither is placed here, but returned to be placed afterwards.
+     */
+    private final class RehashTask extends RecursiveTask<TIntArrayList> {
+        private final long[] oldMetadatas;
+        private final int[] oldKeys;
+        private final int[] oldValues;
+        private final int from;
+        private final int to;
+
+        RehashTask(long[] oldMetadatas, int[] oldKeys, int[] oldValues, int from, int to) {
+            this.oldMetadatas = oldMetadatas;
+            this.oldKeys = oldKeys;
+            this.oldValues = oldValues;
+            this.from = from;
+            this.to = to;
+        }
 
-    private static long unsetBitAtIndex(long metadata, int indexOfByte) {
-        return metadata & ~(1L << (indexOfByte * 8 + 7));
-    }
+        /**
+         * @return the indexes in the old table of the entries which were not placed
+         */
+        @Override
+        protected TIntArrayList compute() {
+            if (to - from > REHASH_TASK_GROUPS) {
+                int middle = (from + to) >>> 1;
+                RehashTask left = new RehashTask(oldMetadatas, oldKeys, oldValues, from, middle);
+                left.fork();
+                TIntArrayList deferred = new RehashTask(oldMetadatas, oldKeys, oldValues, middle, to).compute();
+                deferred.addAll(left.join());
+                return deferred;
+            }
 
-    // From fastutil
-    private static long mix(final long x) {
-        long h = x * LONG_PHI;
-        h ^= h >>> 32;
-        return h ^ (h >>> 16);
+            long[] newMetadatas = metadatas;
+            int[] newKeys = keys;
+            int[] newValues = values;
+            int oldGroupMask = oldMetadatas.length - 1;
+            TIntArrayList deferred = new TIntArrayList();
+            for (int i = from; i < to; i++) {
+                // Returns the flipped 8th bits of key bytes which are present
+                long metadata = oldMetadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+                while (metadata != 0) {
+                    int oldIndex = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                    metadata = unsetBitAtIndex(metadata, oldIndex);
+                    oldIndex += i * BYTES;
+
+                    int key = oldKeys[oldIndex];
+                    long hash = hash(key);
+                    int location = getLocationFromHash(hash);
+                    int metadataIndex = keyIndexToMetadataIndex(location);
+                    int offset = metadataIndex & oldGroupMask;
+                    if (offset < from || offset >= to) {
+                        deferred.add(oldIndex);
+                        continue;
+                    }
+                    int blockStart = metadataIndex - offset + from;
+                    int blockEnd = metadataIndex - offset + to;
+
+                    int indexOfZeroByte;
+                    int step = 0;
+                    while ((indexOfZeroByte = getIndexOfZeroByte(newMetadatas[metadataIndex])) > 7) {
+                        step += BYTES;
+                        location = rangeReduction(location + step);
+                        metadataIndex = keyIndexToMetadataIndex(location);
+                        if (metadataIndex < blockStart || metadataIndex >= blockEnd) {
+                            break;
+                        }
+                    }
+                    if (indexOfZeroByte > 7) {
+                        deferred.add(oldIndex);
+                        continue;
+                    }
+                    setKeyByteInMetadata(newMetadatas, metadataIndex, indexOfZeroByte, getKeyByte(hash));
+                    newKeys[location + indexOfZeroByte] = key;
+                    newValues[location + indexOfZeroByte] = oldValues[oldIndex];
+                }
+            }
+            return deferred;
+        }
     }
 
-    // From SmoothieMap
-    private static long fillWordWithByte(long metadata) {
-        // Equivalent to: (metadata << 24) | (metadata << 16) | (metadata << 8) | metadata;
-        return LEAST_SIGNIFICANT_BYTE_BITS * metadata;
+    /**
+     * Work on the groups in [from, to) of the table
+     */
+    @FunctionalInterface
+    private interface GroupScan {
+        void scan(int from, int to);
     }
 
-    // Returns 8 if there was no 0
-    static int getIndexOfZeroByte(long v) {
-        return keyIndexToMetadataIndex(numberOfTrailingZeros(getZeroBytesMask(v)));
+    /**
+     * Splits a range of groups in halves until they are no larger than {@link #SCAN_TASK_GROUPS}, and scans each of
+     * them.  The ranges are disjoint, so tasks never write the same group.  A task only completes once all of its
+     * subtasks have, even if one of them throws.
+     */
+    private static final class ScanTask extends RecursiveAction {
+        private final GroupScan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(GroupScan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SCAN_TASK_GROUPS) {
+                int middle = (from + to) >>> 1;
+                ScanTask left = new ScanTask(scan, from, middle);
+                left.fork();
+                try {
+                    new ScanTask(scan, middle, to).compute();
+                } finally {
+                    // Even if this half failed, the other must finish before the operation returns
+                    left.join();
+                }
+            } else {
+                scan.scan(from, to);
+            }
+        }
     }
 
-    private static long getZeroBytesMask(long v) {
-        return (v - LEAST_SIGNIFICANT_BYTE_BITS) & ~v & MOST_SIGNIFICANT_BYTE_BITS;
+    /**
+     * A {@link TIntIntIterator} which scans the metadata one group at a time, and which can be reset to iterate again
+     * from the start.  Like any iterator of this map it must not be used across inserts, which may rehash the table,
+     * but entries may be removed through it.
+     */
+    public final class Cursor implements TIntIntIterator {
+        private int metadataIndex;
+        private long remaining;
+        private int index;
+        private int expectedSize;
+
+        private Cursor() {
+            reset();
+        }
+
+        /**
+         * Positions this cursor before the first entry of the map again
+         *
+         * @return this cursor
+         */
+        public Cursor reset() {
+            metadataIndex = -1;
+            remaining = 0;
+            index = -1;
+            expectedSize = size();
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (remaining == 0) {
+                if (metadataIndex + 1 >= metadatas.length) {
+                    return false;
+                }
+                // Returns the flipped 8th bits of key bytes which are present
+                remaining = metadatas[++metadataIndex] & MOST_SIGNIFICANT_BYTE_BITS;
+            }
+            return true;
+        }
+
+        @Override
+        public void advance() {
+            if (expectedSize != size()) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(remaining)); // Returns the index of the first present key byte
+            index = metadataIndex * BYTES + indexInByte;
+            remaining = unsetBitAtIndex(remaining, indexInByte);
+        }
+
+        @Override
+        public int key() {
+            return keys[index];
+        }
+
+        @Override
+        public int value() {
+            return values[index];
+        }
+
+        @Override
+        public int setValue(int val) {
+            int oldValue = values[index];
+            values[index] = val;
+            return oldValue;
+        }
+
+        @Override
+        public void remove() {
+            if (index < 0) {
+                throw new IllegalStateException();
+            }
+            if (expectedSize != size()) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(index);
+            expectedSize--;
+            index = -1;
+        }
     }
 
     /**
-     * Returns the index of the input byte into a word which represents 4 key bytes
-     *
-     * @param x       the word to check for existence
-     * @param keyWord the word which represents 4 consecutive key bytes to check
-     * @return the index of the key byte, or some number > 7 if not present
+     * A spliterator over a range of metadata groups.  It keeps the arrays of the table it was created over, splits by
+     * halving its range of groups, and fails if the map has been rehashed or its size has changed.  Only a spliterator
+     * over the whole table knows its exact size; a split estimates half of the entries of the range it came from.
      */
-    private static int getIndexOfByte(long x, long keyWord) {
-        return getIndexOfZeroByte(x ^ keyWord);
+    private abstract class TableSpliterator {
+        final long[] metadatas;
+        final int[] keys;
+        final int[] values;
+        private final int expectedSize;
+        // The next metadata group to scan, and the end of the range
+        private int metadataIndex;
+        private final int fence;
+        // The flipped 8th bits of the remaining present key bytes of the group before metadataIndex
+        private long remaining;
+        private long estimate;
+
+        TableSpliterator() {
+            this.metadatas = IntIntSwissMap.this.metadatas;
+            this.keys = IntIntSwissMap.this.keys;
+            this.values = IntIntSwissMap.this.values;
+            this.expectedSize = size();
+            this.fence = metadatas.length;
+            this.estimate = expectedSize;
+        }
+
+        /**
+         * Takes the first half of the remaining groups of the parent, which keeps the second half
+         */
+        TableSpliterator(TableSpliterator parent, int fence) {
+            this.metadatas = parent.metadatas;
+            this.keys = parent.keys;
+            this.values = parent.values;
+            this.expectedSize = parent.expectedSize;
+            this.metadataIndex = parent.metadataIndex;
+            this.fence = fence;
+            this.estimate = parent.estimate;
+            parent.metadataIndex = fence;
+        }
+
+        /**
+         * Returns the index of the next entry and moves past it, or -1 if there are none left
+         */
+        final int nextIndex() {
+            while (remaining == 0) {
+                if (metadataIndex >= fence) {
+                    return -1;
+                }
+                // Returns the flipped 8th bits of key bytes which are present
+                remaining = metadatas[metadataIndex++] & MOST_SIGNIFICANT_BYTE_BITS;
+            }
+            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(remaining)); // Returns the index of the first present key byte
+            remaining = unsetBitAtIndex(remaining, indexInByte);
+            return (metadataIndex - 1) * BYTES + indexInByte;
+        }
+
+        /**
+         * Returns the end of the first half of the remaining groups, or -1 if they are too few to split
+         */
+        final int splitFence() {
+            int middle = (metadataIndex + fence) >>> 1;
+            if (middle <= metadataIndex) {
+                return -1;
+            }
+            estimate >>>= 1;
+            return middle;
+        }
+
+        final void checkForComodification() {
+            if (IntIntSwissMap.this.metadatas != metadatas || size() != expectedSize) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public final long estimateSize() {
+            return estimate;
+        }
+
+        int characteristics(int characteristics) {
+            if (fence == metadatas.length && estimate == expectedSize) {
+                return characteristics | Spliterator.SIZED;
+            }
+            return characteristics;
+        }
     }
 
-    private int getLocationFromHash(long hash) {
-        return toIntExact(rangeReduction(hash >>> 7));
+    private final class KeySpliterator extends TableSpliterator implements Spliterator.OfInt {
+        KeySpliterator() {
+        }
+
+        private KeySpliterator(KeySpliterator parent, int fence) {
+            super(parent, fence);
+        }
+
+        @Override
+        public KeySpliterator trySplit() {
+            int fence = splitFence();
+            return fence < 0 ? null : new KeySpliterator(this, fence);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            int index = nextIndex();
+            if (index < 0) {
+                return false;
+            }
+            action.accept(keys[index]);
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int index = nextIndex(); index >= 0; index = nextIndex()) {
+                action.accept(keys[index]);
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics(Spliterator.DISTINCT);
+        }
     }
 
-    private int rangeReduction(long h1) {
-        return (int) (h1 & mask); // Mask should always be less than integer max value
+    private final class ValueSpliterator extends TableSpliterator implements Spliterator.OfInt {
+        ValueSpliterator() {
+        }
+
+        private ValueSpliterator(ValueSpliterator parent, int fence) {
+            super(parent, fence);
+        }
+
+        @Override
+        public ValueSpliterator trySplit() {
+            int fence = splitFence();
+            return fence < 0 ? null : new ValueSpliterator(this, fence);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            int index = nextIndex();
+            if (index < 0) {
+                return false;
+            }
+            action.accept(values[index]);
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int index = nextIndex(); index >= 0; index = nextIndex()) {
+                action.accept(values[index]);
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics(0);
+        }
     }
 
-    private static long getKeyByte(long hash) {
-        long h2 = hash & H2_MASK;
-        return h2 | KEY_BYTE_MASK;
+    private final class EntrySpliterator extends TableSpliterator implements Spliterator.OfLong {
+        EntrySpliterator() {
+        }
+
+        private EntrySpliterator(EntrySpliterator parent, int fence) {
+            super(parent, fence);
+        }
+
+        @Override
+        public EntrySpliterator trySplit() {
+            int fence = splitFence();
+            return fence < 0 ? null : new EntrySpliterator(this, fence);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            int index = nextIndex();
+            if (index < 0) {
+                return false;
+            }
+            action.accept(packEntry(keys[index], values[index]));
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (int index = nextIndex(); index >= 0; index = nextIndex()) {
+                action.accept(packEntry(keys[index], values[index]));
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics(Spliterator.DISTINCT);
+        }
     }
 
     /**
-     * Adds the given keyByte into the metadata
-     *
-     * @param metadatas         the metadata array
-     * @param metadataIndex     the index into the metadata array
-     * @param metadataWordIndex the index into a word in the metadata array
-     * @param keyByte           the key byte to insert
+     * Finds up to {@link #BATCH_SIZE} keys at once.  Rather than probing each key to completion, every key is hashed
+     * and its first metadata group loaded, then the first candidate key of every group is loaded, and only then is each
+     * probe resolved.  The loads of each pass are independent of one another, so the CPU can have many cache misses in
+     * flight at once instead of stalling on each in turn.  The rare probe which is not resolved by its first candidate
+     * or its first group falls back to a regular {@link #find(long, long, long)}.
      */
-    private static void addKeyByteToMetadata(long[] metadatas, int metadataIndex, int metadataWordIndex, long keyByte) {
-        metadatas[metadataIndex] |= (keyByte << (metadataWordIndex << 3));
+    private final class BatchProbe {
+        private final long[] hashes = new long[BATCH_SIZE];
+        private final long[] groups = new long[BATCH_SIZE];
+        private final int[] firstCandidates = new int[BATCH_SIZE];
+        private final int[] indexes = new int[BATCH_SIZE];
+
+        /**
+         * @return for each key from start (inclusive) to end (exclusive), its index in the table or a negative number if
+         * absent, starting at index 0
+         */
+        int[] find(int[] batchKeys, int start, int end) {
+            int count = end - start;
+            hash(batchKeys, start, end);
+
+            // Load the first candidate key of each group, so that the loads of the keys overlap as well
+            for (int i = 0; i < count; i++) {
+                int indexOfByte = getIndexOfByte(groups[i], fillWordWithByte(getKeyByte(hashes[i])));
+                if (indexOfByte <= 7) {
+                    indexes[i] += indexOfByte;
+                    firstCandidates[i] = keys[indexes[i]];
+                } else {
+                    indexes[i] = -1;
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                int key = batchKeys[start + i];
+                if (indexes[i] >= 0 && firstCandidates[i] == key) {
+                    continue;
+                }
+                if (indexes[i] < 0 && getIndexOfZeroByte(groups[i]) <= 7) {
+                    // No candidates, and the probe ends at the first group
+                    continue;
+                }
+                // Either another candidate matched the key byte or the probe continues past the first group
+                indexes[i] = IntIntSwissMap.this.find(key, getKeyByte(hashes[i]), hashes[i]);
+            }
+            return indexes;
+        }
+
+        /**
+         * Hashes each key from start (inclusive) to end (exclusive) and loads the first metadata group of its probe
+         *
+         * @return the hashes of the keys, starting at index 0
+         */
+        long[] hash(int[] batchKeys, int start, int end) {
+            for (int i = 0; i < end - start; i++) {
+                long hash = IntIntSwissMap.this.hash(batchKeys[start + i]);
+                int location = getLocationFromHash(hash);
+                hashes[i] = hash;
+                indexes[i] = location;
+                groups[i] = metadatas[keyIndexToMetadataIndex(location)];
+            }
+            return hashes;
+        }
+    }
+
+    /******************************************************************************************************************\
+     *                                                                                                                  *
+     * Bit functions                                                                                                    *
+     *                                                                                                                  *
+     \******************************************************************************************************************/
+
+    private long hash(int key) {
+        return hashingStrategy == null ? mix(key) : hashingStrategy.hash(key);
     }
 
 }
@@ -0,0 +1,689 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.function.TObjectFunction;
+import gnu.trove.map.TMap;
+import gnu.trove.procedure.TObjectObjectProcedure;
+import gnu.trove.procedure.TObjectProcedure;
+import gnu.trove.strategy.HashingStrategy;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.timdmeehan.trove.extras.SwissTables.KEY_BYTE_MASK;
+import static com.timdmeehan.trove.extras.SwissTables.MOST_SIGNIFICANT_BYTE_BITS;
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getByteAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfFreeByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+import static com.timdmeehan.trove.extras.SwissTables.setKeyByteInMetadata;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
+import static java.lang.Long.BYTES;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * An implementation of a Trove object to object map which is inspired by SwissTable.
+ *
+ * It has the same table as {@link IntIntSwissMap}, so the 7 bit H2 of a key's hash filters the slots of a group before
+ * any key is compared.  The full hash code of every key is also kept alongside it, and compared before
+ * {@link Object#equals}, so a lookup almost never calls equals on a key other than the one it finds.  The cached hash
+ * codes also let the table be rehashed and compacted without calling {@link Object#hashCode}.  The map holds a
+ * {@link SwissTable} for its metadata, rehashing and compaction, and only probes for keys itself.
+ *
+ * Keys are hashed and compared with their own hashCode and equals, or with a {@link HashingStrategy}.  Null keys and
+ * values are permitted, with null keys passed to the strategy if there is one.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+@SuppressWarnings("unchecked")
+public class ObjSwissMap<K, V>
+        extends AbstractMap<K, V>
+        implements TMap<K, V> {
+    // Null to use the keys' own hashCode and equals
+    private final HashingStrategy<? super K> hashingStrategy;
+    private final Table table;
+
+    public ObjSwissMap(double loadFactor) {
+        this(0, loadFactor);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed.
+     *
+     * @param expectedSize the number of entries the map is expected to hold
+     * @param loadFactor   the fraction of the table which may be used before it is rehashed
+     */
+    public ObjSwissMap(int expectedSize, double loadFactor) {
+        this(expectedSize, loadFactor, null);
+    }
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed, and which hashes and compares
+     * its keys with the given strategy.
+     *
+     * @param expectedSize    the number of entries the map is expected to hold
+     * @param loadFactor      the fraction of the table which may be used before it is rehashed
+     * @param hashingStrategy the hash and equality of the keys, or null to use their own
+     */
+    public ObjSwissMap(int expectedSize, double loadFactor, HashingStrategy<? super K> hashingStrategy) {
+        this.hashingStrategy = hashingStrategy;
+        this.table = new Table(expectedSize, loadFactor);
+    }
+
+    /**
+     * Ensures that the map can hold desiredCapacity more entries than it currently holds without being rehashed.
+     *
+     * @param desiredCapacity the number of entries which are about to be added
+     */
+    public void ensureCapacity(int desiredCapacity) {
+        table.ensureCapacity(desiredCapacity);
+    }
+
+    /**
+     * Shrinks the table to the smallest power of two size which holds the current entries below the resize threshold,
+     * dropping any tombstones along the way.
+     */
+    public void trimToSize() {
+        table.trimToSize();
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int hashCode = hashCode(key);
+        long hash = mix(hashCode);
+        long keyByte = getKeyByte(hash);
+        int location = find(key, hashCode, keyByte, hash);
+
+        if (location >= 0) {
+            V oldValue = (V) table.values[location];
+            table.values[location] = value;
+            return oldValue;
+        }
+
+        insertAt(-location - 1, key, value, hashCode, keyByte);
+        return null;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        int hashCode = hashCode(key);
+        long hash = mix(hashCode);
+        long keyByte = getKeyByte(hash);
+        int location = find(key, hashCode, keyByte, hash);
+
+        if (location >= 0) {
+            return (V) table.values[location];
+        }
+
+        insertAt(-location - 1, key, value, hashCode, keyByte);
+        return null;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        ensureCapacity(map.size());
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = find(key);
+        return index >= 0 ? (V) table.values[index] : null;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        int index = find(key);
+        return index >= 0 ? (V) table.values[index] : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        long[] metadatas = table.metadatas;
+        Object[] values = table.values;
+        for (int i = 0; i < metadatas.length; i++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                if (Objects.equals(values[i * BYTES + indexInByte], value)) {
+                    return true;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V remove(Object key) {
+        int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+        V prev = (V) table.values[index];
+        table.removeAt(index);
+        return prev;
+    }
+
+    @Override
+    public void clear() {
+        table.allocate(table.initialCapacity);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return table.isEmpty();
+    }
+
+    /**
+     * @return the number of slots in the table, used and unused
+     */
+    int capacity() {
+        return table.capacity();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public boolean forEachKey(TObjectProcedure<? super K> procedure) {
+        long[] metadatas = table.metadatas;
+        Object[] keys = table.keys;
+        for (int i = 0; i < metadatas.length; i++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                if (!procedure.execute((K) keys[i * BYTES + indexInByte])) {
+                    return false;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachValue(TObjectProcedure<? super V> procedure) {
+        long[] metadatas = table.metadatas;
+        Object[] values = table.values;
+        for (int i = 0; i < metadatas.length; i++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                if (!procedure.execute((V) values[i * BYTES + indexInByte])) {
+                    return false;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachEntry(TObjectObjectProcedure<? super K, ? super V> procedure) {
+        long[] metadatas = table.metadatas;
+        Object[] keys = table.keys;
+        Object[] values = table.values;
+        for (int i = 0; i < metadatas.length; i++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                int index = i * BYTES + indexInByte;
+                if (!procedure.execute((K) keys[index], (V) values[index])) {
+                    return false;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean retainEntries(TObjectObjectProcedure<? super K, ? super V> procedure) {
+        boolean modified = false;
+        long[] metadatas = table.metadatas;
+        Object[] keys = table.keys;
+        Object[] values = table.values;
+        for (int i = 0; i < metadatas.length; i++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                int index = i * BYTES + indexInByte;
+                if (!procedure.execute((K) keys[index], (V) values[index])) {
+                    table.removeAt(index);
+                    modified = true;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void transformValues(TObjectFunction<V, V> function) {
+        long[] metadatas = table.metadatas;
+        Object[] values = table.values;
+        for (int i = 0; i < metadatas.length; i++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                int index = i * BYTES + indexInByte;
+                values[index] = function.execute((V) values[index]);
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+    }
+
+    /**
+     * Inserts the entry at the given free location, which is either empty or a tombstone
+     */
+    private void insertAt(int location, K key, V value, int hashCode, long keyByte) {
+        table.keys[location] = key;
+        table.values[location] = value;
+        table.hashCodes[location] = hashCode;
+        table.occupy(location, keyByte);
+    }
+
+    private int find(Object key) {
+        int hashCode = hashCode((K) key);
+        long hash = mix(hashCode);
+        return find(key, hashCode, getKeyByte(hash), hash);
+    }
+
+    /**
+     * Returns the index of the key if it is present.  Otherwise returns -(i + 1), where i is the first free slot along
+     * the probe sequence of the key, at which it may be inserted.  Equals is only called on keys whose H2 and full hash
+     * code both match, which is why the map probes for itself rather than through {@link SwissTable#find}.
+     */
+    private int find(Object key, int hashCode, long keyByte, long hash) {
+        long[] metadatas = table.metadatas;
+        Object[] keys = table.keys;
+        int[] hashCodes = table.hashCodes;
+        long keyWord = fillWordWithByte(keyByte);
+        int location = table.getLocationFromHash(hash);
+        int firstFree = -1;
+        int step = 0;
+        while (true) {
+            long metadata = metadatas[keyIndexToMetadataIndex(location)];
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                int index = location + indexOfByte;
+                if (hashCodes[index] == hashCode && keyEquals(keys[index], key)) {
+                    return index;
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            // Remember the first tombstone or empty slot, so that an insert can reuse it
+            if (firstFree < 0) {
+                indexOfByte = getIndexOfFreeByte(metadata);
+                if (indexOfByte <= 7) {
+                    firstFree = location + indexOfByte;
+                }
+            }
+
+            // Was not a match -- was there an empty entry or only tombstones and other keys?
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return -(firstFree + 1);
+            }
+
+            step += BYTES;
+            location = table.rangeReduction(location + step);
+        }
+    }
+
+    private int hashCode(K key) {
+        if (hashingStrategy != null) {
+            return hashingStrategy.computeHashCode(key);
+        }
+        return key == null ? 0 : key.hashCode();
+    }
+
+    private boolean keyEquals(Object stored, Object key) {
+        if (hashingStrategy != null) {
+            return ((HashingStrategy<Object>) hashingStrategy).equals(stored, key);
+        }
+        return stored == key || key != null && key.equals(stored);
+    }
+
+    /**
+     * The table of the map, which keeps the full hash code of every key alongside it so that the table can be rehashed
+     * and compacted without calling {@link Object#hashCode}
+     */
+    private final class Table extends SwissTable {
+        private Object[] keys;
+        private Object[] values;
+        private int[] hashCodes;
+
+        Table(int expectedSize, double loadFactor) {
+            super(expectedSize, loadFactor);
+            allocate(initialCapacity);
+        }
+
+        @Override
+        void allocate(int capacity) {
+            super.allocate(capacity);
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            hashCodes = new int[capacity];
+        }
+
+        @Override
+        void rehash(int newCapacity) {
+            int size = filled - deleted;
+            long[] oldMetadatas = metadatas;
+            Object[] oldKeys = keys;
+            Object[] oldValues = values;
+            int[] oldHashCodes = hashCodes;
+            allocate(newCapacity);
+
+            for (int i = 0; i < oldMetadatas.length; i++) {
+                // Returns the flipped 8th bits of key bytes which are present
+                long metadata = oldMetadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+                while (metadata != 0) {
+                    int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                    int oldIndex = i * BYTES + indexInByte;
+                    int hashCode = oldHashCodes[oldIndex];
+                    long hash = mix(hashCode);
+                    // Every entry is distinct and the new table has no tombstones, so the first free slot is its place
+                    int location = findFree(getLocationFromHash(hash));
+                    setKeyByteInMetadata(metadatas, keyIndexToMetadataIndex(location), keyIndexToMetadataWordIndex(location), getKeyByte(hash));
+                    keys[location] = oldKeys[oldIndex];
+                    values[location] = oldValues[oldIndex];
+                    hashCodes[location] = hashCode;
+                    metadata = unsetBitAtIndex(metadata, indexInByte);
+                }
+            }
+            filled = size;
+        }
+
+        @Override
+        long hashAt(int index) {
+            return mix(hashCodes[index]);
+        }
+
+        @Override
+        long keyAt(int index) {
+            // Object keys are compared with equals, so the map probes with its own find
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        void moveEntry(int from, int to) {
+            keys[to] = keys[from];
+            values[to] = values[from];
+            hashCodes[to] = hashCodes[from];
+            keys[from] = null;
+            values[from] = null;
+        }
+
+        @Override
+        void swapEntries(int first, int second) {
+            Object key = keys[first];
+            Object value = values[first];
+            int hashCode = hashCodes[first];
+            keys[first] = keys[second];
+            values[first] = values[second];
+            hashCodes[first] = hashCodes[second];
+            keys[second] = key;
+            values[second] = value;
+            hashCodes[second] = hashCode;
+        }
+
+        @Override
+        void removeAt(int index) {
+            super.removeAt(index);
+            // Let the key and value be collected
+            keys[index] = null;
+            values[index] = null;
+        }
+
+        /**
+         * @return true if the slot at the given index is present and holds the given key
+         */
+        boolean holds(int index, Object key) {
+            return index < capacity()
+                    && (getByteAtIndex(metadatas[keyIndexToMetadataIndex(index)], keyIndexToMetadataWordIndex(index)) & KEY_BYTE_MASK) != 0
+                    && keys[index] == key;
+        }
+    }
+
+    /**
+     * Scans the metadata one group at a time.  Like any iterator of this map it must not be used across inserts,
+     * which may rehash the table, but entries may be removed through it.
+     */
+    private abstract class TableIterator<T> implements Iterator<T> {
+        private int metadataIndex = -1;
+        private long remaining;
+        private int index = -1;
+        private int expectedSize = size();
+
+        /**
+         * @return the element of this iterator for the entry at the given index
+         */
+        abstract T get(int index);
+
+        @Override
+        public boolean hasNext() {
+            while (remaining == 0) {
+                if (metadataIndex + 1 >= table.metadatas.length) {
+                    return false;
+                }
+                // Returns the flipped 8th bits of key bytes which are present
+                remaining = table.metadatas[++metadataIndex] & MOST_SIGNIFICANT_BYTE_BITS;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (expectedSize != size()) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(remaining)); // Returns the index of the first present key byte
+            index = metadataIndex * BYTES + indexInByte;
+            remaining = unsetBitAtIndex(remaining, indexInByte);
+            return get(index);
+        }
+
+        @Override
+        public void remove() {
+            if (index < 0) {
+                throw new IllegalStateException();
+            }
+            if (expectedSize != size()) {
+                throw new ConcurrentModificationException();
+            }
+            table.removeAt(index);
+            expectedSize--;
+            index = -1;
+        }
+    }
+
+    /**
+     * An entry whose value writes through to the map while the entry is still in its slot.  Once it has been removed,
+     * or moved by a rehash, only the entry itself is updated.
+     */
+    private final class TableEntry extends SimpleEntry<K, V> {
+        private final int index;
+
+        TableEntry(int index) {
+            super((K) table.keys[index], (V) table.values[index]);
+            this.index = index;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (table.holds(index, getKey())) {
+                table.values[index] = value;
+            }
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * A live view of the keys of this map
+     */
+    private final class KeySet extends AbstractSet<K> {
+
+        @Override
+        public int size() {
+            return ObjSwissMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return containsKey(key);
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new TableIterator<K>() {
+                @Override
+                K get(int index) {
+                    return (K) table.keys[index];
+                }
+            };
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            int index = find(key);
+            if (index < 0) {
+                return false;
+            }
+            table.removeAt(index);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            ObjSwissMap.this.clear();
+        }
+    }
+
+    /**
+     * A live view of the values of this map
+     */
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return ObjSwissMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return containsValue(value);
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new TableIterator<V>() {
+                @Override
+                V get(int index) {
+                    return (V) table.values[index];
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            ObjSwissMap.this.clear();
+        }
+    }
+
+    /**
+     * A live view of the entries of this map
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return ObjSwissMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            int index = find(entry.getKey());
+            return index >= 0 && Objects.equals(table.values[index], entry.getValue());
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new TableIterator<Map.Entry<K, V>>() {
+                @Override
+                Map.Entry<K, V> get(int index) {
+                    return new TableEntry(index);
+                }
+            };
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            table.removeAt(find(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            ObjSwissMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,731 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.function.TIntFunction;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+
+import java.util.ConcurrentModificationException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.timdmeehan.trove.extras.SwissTables.EMPTY_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.KEYS_MASK;
+import static com.timdmeehan.trove.extras.SwissTables.MOST_SIGNIFICANT_BYTE_BITS;
+import static com.timdmeehan.trove.extras.SwissTables.TOMBSTONE_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getByteAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfFreeByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.mix;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.withKeyByte;
+import static java.lang.Long.BYTES;
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * The part of {@link IntIntPackedSwissMap} and {@link IntIntOffHeapSwissMap} which does not depend on where their table
+ * is kept.  Both lay each group out as its metadata word followed by its 8 entries, each entry packing its key into the
+ * low half of a long and its value into the high half, and differ only in the storage which holds the groups.  The
+ * probing, inserts, removals, rehashing and in place compaction all go through the storage accessors below, so that a
+ * fix to any of them reaches both maps.
+ *
+ * Lookups are left to the subclasses, so that each can read a group the fastest way its storage allows.
+ *
+ * @param <T> the type of storage which holds the table
+ */
+abstract class PackedSwissTable<T>
+        implements TIntIntMap {
+    static final int INITIAL_SIZE = 16;
+    static final int MAX_SIZE = 1 << 30;
+    // Tombstone ratio past which a full table is compacted in place rather than doubled
+    static final double MAX_TOMBSTONE_RATIO = 0.5;
+    private static final int[] EMPTY_ARRAY = {};
+    private static final long KEY_BITS = 0xFFFFFFFFL;
+
+    final double loadFactor;
+    final int noEntryKey;
+    final int noEntryValue;
+    final int initialCapacity;
+
+    T table;
+    int capacity;
+    long mask;
+    int filled;
+    int deleted;
+    int resizeThreshold;
+
+    /**
+     * Sizes the table for expectedSize entries, but leaves it to the subclass to allocate it once its own fields are
+     * set
+     */
+    PackedSwissTable(int expectedSize, double loadFactor, int noEntryKey, int noEntryValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        this.loadFactor = loadFactor;
+        this.noEntryKey = noEntryKey;
+        this.noEntryValue = noEntryValue;
+        this.initialCapacity = getCapacityFor(expectedSize);
+    }
+
+    /**
+     * @return an empty table of the given capacity, in which every slot is empty
+     */
+    abstract T allocateTable(int capacity);
+
+    /**
+     * Frees a table which the map no longer uses.  Tables on the heap are left to the garbage collector.
+     */
+    void releaseTable(T table) {
+    }
+
+    /**
+     * @return the table, checked to be usable
+     */
+    T table() {
+        return table;
+    }
+
+    /**
+     * @return the metadata word of the given group
+     */
+    abstract long readMetadata(T table, int group);
+
+    abstract void writeMetadata(T table, int group, long metadata);
+
+    /**
+     * @return the packed entry at the given location
+     */
+    abstract long readEntry(T table, int location);
+
+    abstract void writeEntry(T table, int location, long entry);
+
+    /**
+     * Ensures that the map can hold desiredCapacity more entries than it currently holds without being rehashed.
+     *
+     * @param desiredCapacity the number of entries which are about to be added
+     */
+    public void ensureCapacity(int desiredCapacity) {
+        table();
+        if (desiredCapacity > resizeThreshold - 1 - filled) {
+            int newCapacity = getCapacityFor(filled - deleted + desiredCapacity);
+            if (newCapacity > capacity) {
+                rehash(newCapacity);
+            } else {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest power of two size which holds the current entries below the resize threshold,
+     * dropping any tombstones along the way.
+     */
+    public void trimToSize() {
+        table();
+        int newCapacity = getCapacityFor(filled - deleted);
+        if (newCapacity < capacity) {
+            rehash(newCapacity);
+        } else if (deleted > 0) {
+            compact();
+        }
+    }
+
+    @Override
+    public int getNoEntryKey() {
+        return noEntryKey;
+    }
+
+    @Override
+    public int getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    @Override
+    public int put(int key, int value) {
+        T table = table();
+        long hash = mix(key);
+        long keyByte = getKeyByte(hash);
+        int location = find(table, key, keyByte, hash);
+
+        if (location >= 0) {
+            int oldValue = getValue(readEntry(table, location));
+            writeEntry(table, location, getEntry(key, value));
+            return oldValue;
+        }
+
+        insertAt(table, -location - 1, key, value, keyByte);
+        return noEntryValue;
+    }
+
+    @Override
+    public int putIfAbsent(int key, int value) {
+        T table = table();
+        long hash = mix(key);
+        long keyByte = getKeyByte(hash);
+        int location = find(table, key, keyByte, hash);
+
+        if (location >= 0) {
+            return getValue(readEntry(table, location));
+        }
+
+        insertAt(table, -location - 1, key, value, keyByte);
+        return noEntryValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Integer> map) {
+        ensureCapacity(map.size());
+        for (Map.Entry<? extends Integer, ? extends Integer> entry : map.entrySet()) {
+            this.put(entry.getKey().intValue(), entry.getValue().intValue());
+        }
+    }
+
+    @Override
+    public void putAll(TIntIntMap map) {
+        ensureCapacity(map.size());
+        TIntIntIterator iter = map.iterator();
+        while (iter.hasNext()) {
+            iter.advance();
+            put(iter.key(), iter.value());
+        }
+    }
+
+    /**
+     * Replaces the table with an empty one of the initial capacity.  The new table is allocated before the old one is
+     * released, so that a failed allocation leaves the map as it was.
+     */
+    @Override
+    public void clear() {
+        T oldTable = table();
+        allocate(initialCapacity);
+        releaseTable(oldTable);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        table();
+        return (filled - deleted) == 0;
+    }
+
+    @Override
+    public int remove(int key) {
+        T table = table();
+        int prev = noEntryValue;
+        int location = find(table, key);
+        if (location >= 0) {
+            prev = getValue(readEntry(table, location));
+            removeAt(table, location);
+        }
+        return prev;
+    }
+
+    /**
+     * Removes the entry at the given location.  If its group still has an empty slot, no probe sequence can have
+     * passed through the group, so the slot can be emptied outright; otherwise it must be left as a tombstone.
+     */
+    private void removeAt(T table, int location) {
+        int group = keyIndexToMetadataIndex(location);
+        long metadata = readMetadata(table, group);
+        if (getIndexOfZeroByte(metadata) <= 7) {
+            writeMetadata(table, group, withKeyByte(metadata, keyIndexToMetadataWordIndex(location), EMPTY_BYTE));
+            filled--;
+        } else {
+            writeMetadata(table, group, withKeyByte(metadata, keyIndexToMetadataWordIndex(location), TOMBSTONE_BYTE));
+            deleted++;
+        }
+    }
+
+    /**
+     * Inserts the entry at the given free location, which is either empty or a tombstone.  If the table has run out of
+     * empty slots it is compacted in place when mostly tombstones, and doubled in size otherwise.
+     */
+    private void insertAt(T table, int location, int key, int value, long keyByte) {
+        int group = keyIndexToMetadataIndex(location);
+        int metadataWordIndex = keyIndexToMetadataWordIndex(location);
+        long metadata = readMetadata(table, group);
+        writeEntry(table, location, getEntry(key, value));
+        if (getByteAtIndex(metadata, metadataWordIndex) == TOMBSTONE_BYTE) {
+            // Reusing a tombstone does not consume an empty slot
+            deleted--;
+        } else {
+            filled++;
+        }
+        writeMetadata(table, group, withKeyByte(metadata, metadataWordIndex, keyByte));
+        if (filled >= resizeThreshold) {
+            if (deleted > filled * MAX_TOMBSTONE_RATIO) {
+                compact();
+            } else {
+                rehash(capacity * 2);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        table();
+        return filled - deleted;
+    }
+
+    /**
+     * @return the number of slots in the table, used and unused
+     */
+    int capacity() {
+        table();
+        return capacity;
+    }
+
+    @Override
+    public TIntSet keySet() {
+        return new IntIntMapViews.KeySet(this);
+    }
+
+    @Override
+    public int[] keys() {
+        return keys(EMPTY_ARRAY);
+    }
+
+    @Override
+    public int[] keys(int[] ints) {
+        T table = table();
+        if (ints.length < (filled - deleted)) {
+            ints = new int[filled - deleted];
+        }
+        int counter = 0;
+        for (int group = 0; group < capacity / BYTES; group++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = readMetadata(table, group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                ints[counter++] = getKey(readEntry(table, group * BYTES + indexInByte));
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return ints;
+    }
+
+    @Override
+    public TIntCollection valueCollection() {
+        return new IntIntMapViews.Values(this);
+    }
+
+    @Override
+    public int[] values() {
+        return values(EMPTY_ARRAY);
+    }
+
+    @Override
+    public int[] values(int[] ints) {
+        T table = table();
+        if (ints.length < (filled - deleted)) {
+            ints = new int[filled - deleted];
+        }
+        int counter = 0;
+        for (int group = 0; group < capacity / BYTES; group++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = readMetadata(table, group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                ints[counter++] = getValue(readEntry(table, group * BYTES + indexInByte));
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return ints;
+    }
+
+    @Override
+    public boolean containsValue(int value) {
+        return !forEachValue(v -> v != value);
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return find(table(), key) >= 0;
+    }
+
+    @Override
+    public TIntIntIterator iterator() {
+        table();
+        return new Iterator();
+    }
+
+    @Override
+    public boolean forEachKey(TIntProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(key));
+    }
+
+    @Override
+    public boolean forEachValue(TIntProcedure procedure) {
+        return forEachEntry((key, value) -> procedure.execute(value));
+    }
+
+    @Override
+    public boolean forEachEntry(TIntIntProcedure procedure) {
+        T table = table();
+        for (int group = 0; group < capacity / BYTES; group++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = readMetadata(table, group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                long entry = readEntry(table, group * BYTES + indexInByte);
+                if (!procedure.execute(getKey(entry), getValue(entry))) {
+                    return false;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void transformValues(TIntFunction function) {
+        T table = table();
+        for (int group = 0; group < capacity / BYTES; group++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = readMetadata(table, group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                int location = group * BYTES + indexInByte;
+                long entry = readEntry(table, location);
+                writeEntry(table, location, getEntry(getKey(entry), function.execute(getValue(entry))));
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+    }
+
+    @Override
+    public boolean retainEntries(TIntIntProcedure procedure) {
+        T table = table();
+        boolean modified = false;
+
+        for (int group = 0; group < capacity / BYTES; group++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = readMetadata(table, group) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                int location = group * BYTES + indexInByte;
+                long entry = readEntry(table, location);
+                if (!procedure.execute(getKey(entry), getValue(entry))) {
+                    removeAt(table, location);
+                    modified = true;
+                }
+                metadata = unsetBitAtIndex(metadata, indexInByte);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean increment(int key) {
+        return adjustValue(key, 1);
+    }
+
+    @Override
+    public boolean adjustValue(int key, int adjustAmount) {
+        T table = table();
+        int location = find(table, key);
+
+        // Location present, adjust the value
+        if (location >= 0) {
+            writeEntry(table, location, readEntry(table, location) + ((long) adjustAmount << 32)); // Overflow out of the value falls off the top
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int adjustOrPutValue(int key, int adjustAmount, int putValue) {
+        T table = table();
+        long hash = mix(key);
+        long keyByte = getKeyByte(hash);
+        int location = find(table, key, keyByte, hash);
+
+        // Location present, adjust the value
+        if (location >= 0) {
+            long entry = readEntry(table, location) + ((long) adjustAmount << 32);
+            writeEntry(table, location, entry);
+            return getValue(entry);
+        }
+        insertAt(table, -location - 1, key, putValue, keyByte);
+        return putValue;
+    }
+
+    private int find(T table, int key) {
+        long hash = mix(key);
+        return find(table, key, getKeyByte(hash), hash);
+    }
+
+    /**
+     * Returns the location of the key if there is a match.  Returns (-location - 1) of the first free space along the
+     * probe sequence if there was no match, where a free space is either an empty slot or a tombstone.  It is presumed
+     * that the table always contains at least one empty slot.
+     */
+    private int find(T table, int key, long keyByte, long hash) {
+        long keyWord = fillWordWithByte(keyByte);
+        int location = getLocationFromHash(hash);
+        int firstFree = -1;
+        int step = 0;
+        while (true) {
+            long metadata = readMetadata(table, keyIndexToMetadataIndex(location));
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                if (getKey(readEntry(table, location + indexOfByte)) == key) {
+                    return location + indexOfByte;
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            // Remember the first tombstone or empty slot, so that an insert can reuse it
+            if (firstFree < 0) {
+                indexOfByte = getIndexOfFreeByte(metadata);
+                if (indexOfByte <= 7) {
+                    firstFree = location + indexOfByte;
+                }
+            }
+
+            // Was not a match -- was there an empty entry or only tombstones and other keys?
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return -(firstFree + 1);
+            }
+
+            // it was a tombstone
+            step += BYTES;
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Moves the entries into a new table of the given capacity, then releases the old one
+     */
+    private void rehash(int newCapacity) {
+        int size = filled - deleted;
+        int oldCapacity = capacity;
+        T oldTable = table;
+        allocate(newCapacity);
+        T table = this.table;
+
+        for (int oldGroup = 0; oldGroup < oldCapacity / BYTES; oldGroup++) {
+            // Returns the flipped 8th bits of key bytes which are present
+            long metadata = readMetadata(oldTable, oldGroup) & MOST_SIGNIFICANT_BYTE_BITS;
+            while (metadata != 0) {
+                int oldIndex = keyIndexToMetadataIndex(numberOfTrailingZeros(metadata)); // Returns the index of the first present key byte
+                long entry = readEntry(oldTable, oldGroup * BYTES + oldIndex);
+                long hash = mix(getKey(entry));
+
+                int location = getLocationFromHash(hash);
+                long newMetadata;
+                int indexOfZeroByte;
+                int step = 0;
+                while ((indexOfZeroByte = getIndexOfZeroByte(newMetadata = readMetadata(table, keyIndexToMetadataIndex(location)))) > 7) {
+                    step += BYTES;
+                    location = rangeReduction(location + step);
+                }
+                int group = keyIndexToMetadataIndex(location);
+                writeMetadata(table, group, withKeyByte(newMetadata, indexOfZeroByte, getKeyByte(hash)));
+                writeEntry(table, group * BYTES + indexOfZeroByte, entry);
+                metadata = unsetBitAtIndex(metadata, oldIndex);
+            }
+        }
+        releaseTable(oldTable);
+        filled = size;
+    }
+
+    /**
+     * Rehashes the table in place at the same capacity, dropping its tombstones without allocating.  See
+     * {@link IntIntSwissMap} for how the pending entries are moved.
+     */
+    private void compact() {
+        T table = this.table;
+        for (int group = 0; group < capacity / BYTES; group++) {
+            long present = readMetadata(table, group) & MOST_SIGNIFICANT_BYTE_BITS;
+            writeMetadata(table, group, present - (present >>> 7)); // Turns each 0x80 into 0x7F, and everything else into 0
+        }
+
+        for (int index = 0; index < capacity; index++) {
+            int group = keyIndexToMetadataIndex(index);
+            int metadataWordIndex = keyIndexToMetadataWordIndex(index);
+            if (getByteAtIndex(readMetadata(table, group), metadataWordIndex) != TOMBSTONE_BYTE) {
+                continue;
+            }
+
+            long entry = readEntry(table, index);
+            long hash = mix(getKey(entry));
+            long keyByte = getKeyByte(hash);
+            int probeStart = getLocationFromHash(hash);
+            int location = findFree(table, probeStart);
+
+            // The entry is already in the first group of its probe sequence which has room for it
+            if (getProbeOffset(location, probeStart) == getProbeOffset(index, probeStart)) {
+                writeMetadata(table, group, withKeyByte(readMetadata(table, group), metadataWordIndex, keyByte));
+                continue;
+            }
+
+            int newGroup = keyIndexToMetadataIndex(location);
+            int newMetadataWordIndex = keyIndexToMetadataWordIndex(location);
+            long newMetadata = readMetadata(table, newGroup);
+            boolean pending = getByteAtIndex(newMetadata, newMetadataWordIndex) == TOMBSTONE_BYTE;
+            writeMetadata(table, newGroup, withKeyByte(newMetadata, newMetadataWordIndex, keyByte));
+            if (pending) {
+                // Swap with the pending entry and process it next, in this entry's old slot
+                writeEntry(table, index, readEntry(table, location));
+                index--;
+            } else {
+                writeMetadata(table, group, withKeyByte(readMetadata(table, group), metadataWordIndex, EMPTY_BYTE));
+            }
+            writeEntry(table, location, entry);
+        }
+        filled -= deleted;
+        deleted = 0;
+    }
+
+    /**
+     * Replaces the table with an empty one of the given capacity.  Nothing changes if the allocation fails.
+     */
+    void allocate(int newCapacity) {
+        table = allocateTable(newCapacity);
+        filled = 0;
+        deleted = 0;
+        capacity = newCapacity;
+        mask = newCapacity - 1 & KEYS_MASK;
+        resizeThreshold = (int) (loadFactor * newCapacity);
+    }
+
+    /**
+     * Returns the smallest power of two table size which holds the given number of entries without reaching the resize
+     * threshold
+     */
+    private int getCapacityFor(int size) {
+        int capacity = INITIAL_SIZE;
+        while (capacity < MAX_SIZE && (int) (loadFactor * capacity) <= size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the first empty slot or tombstone along the probe sequence which starts at the given location
+     */
+    private int findFree(T table, int location) {
+        for (int step = BYTES; ; step += BYTES) {
+            int indexOfByte = getIndexOfFreeByte(readMetadata(table, keyIndexToMetadataIndex(location)));
+            if (indexOfByte <= 7) {
+                return location + indexOfByte;
+            }
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Returns the number of groups between the start of a probe sequence and the given location
+     */
+    private int getProbeOffset(int location, int probeStart) {
+        return keyIndexToMetadataIndex((location - probeStart) & (capacity - 1));
+    }
+
+    /**
+     * A {@link TIntIntIterator} which scans the table one group at a time.  It must not be used across inserts, which
+     * may rehash the table, but entries may be removed through it.
+     */
+    private final class Iterator implements TIntIntIterator {
+        private int group = -1;
+        private long remaining;
+        private int location = -1;
+        private int expectedSize = size();
+
+        @Override
+        public boolean hasNext() {
+            while (remaining == 0) {
+                if (group + 1 >= capacity / BYTES) {
+                    return false;
+                }
+                // Returns the flipped 8th bits of key bytes which are present
+                remaining = readMetadata(table(), ++group) & MOST_SIGNIFICANT_BYTE_BITS;
+            }
+            return true;
+        }
+
+        @Override
+        public void advance() {
+            if (expectedSize != size()) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int indexInByte = keyIndexToMetadataIndex(numberOfTrailingZeros(remaining)); // Returns the index of the first present key byte
+            location = group * BYTES + indexInByte;
+            remaining = unsetBitAtIndex(remaining, indexInByte);
+        }
+
+        @Override
+        public int key() {
+            return getKey(readEntry(table(), location));
+        }
+
+        @Override
+        public int value() {
+            return getValue(readEntry(table(), location));
+        }
+
+        @Override
+        public int setValue(int val) {
+            if (location < 0) {
+                throw new IllegalStateException();
+            }
+            T table = table();
+            long entry = readEntry(table, location);
+            writeEntry(table, location, getEntry(getKey(entry), val));
+            return getValue(entry);
+        }
+
+        @Override
+        public void remove() {
+            if (location < 0) {
+                throw new IllegalStateException();
+            }
+            if (expectedSize != size()) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(table(), location);
+            expectedSize--;
+            location = -1;
+        }
+    }
+
+    /******************************************************************************************************************\
+     *                                                                                                                  *
+     * Bit functions                                                                                                    *
+     *                                                                                                                  *
+     \******************************************************************************************************************/
+
+    int getLocationFromHash(long hash) {
+        return rangeReduction(hash >>> 7);
+    }
+
+    int rangeReduction(long h1) {
+        return (int) (h1 & mask); // Mask should always be less than integer max value
+    }
+
+    static long getEntry(int key, int value) {
+        return ((long) value << 32) | (key & KEY_BITS);
+    }
+
+    static int getKey(long entry) {
+        return (int) entry;
+    }
+
+    static int getValue(long entry) {
+        return (int) (entry >>> 32);
+    }
+}
@@ -0,0 +1,397 @@
+package com.timdmeehan.trove.extras;
+
+import static com.timdmeehan.trove.extras.SwissTables.EMPTY_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.KEYS_MASK;
+import static com.timdmeehan.trove.extras.SwissTables.MOST_SIGNIFICANT_BYTE_BITS;
+import static com.timdmeehan.trove.extras.SwissTables.TOMBSTONE_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.fillWordWithByte;
+import static com.timdmeehan.trove.extras.SwissTables.getByteAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfFreeByte;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
+import static com.timdmeehan.trove.extras.SwissTables.getKeyByte;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataIndex;
+import static com.timdmeehan.trove.extras.SwissTables.keyIndexToMetadataWordIndex;
+import static com.timdmeehan.trove.extras.SwissTables.setKeyByteInMetadata;
+import static com.timdmeehan.trove.extras.SwissTables.unsetBitAtIndex;
+import static java.lang.Long.BYTES;
+
+/**
+ * The part of a SwissTable with primitive keys which does not depend on the types of its keys and values: the metadata,
+ * the counts of used slots and tombstones, and the probing, removal, insert bookkeeping and in place compaction which
+ * work on them.  {@link IntIntSwissMap} and the maps generated from SwissMap.template extend it, and the sets
+ * generated from SwissSet.template hold one, so that a fix to any of these reaches every key and value type at once.
+ *
+ * Subclasses keep their keys and values in arrays of their own types, with the entry of each metadata byte at the same
+ * index.  Keys are compared as longs, which widening an int key preserves.
+ */
+abstract class SwissTable {
+    static final int INITIAL_SIZE = 16;
+    static final int MAX_SIZE = 1 << 30;
+    // Tombstone ratio past which a full table is compacted in place rather than doubled
+    static final double MAX_TOMBSTONE_RATIO = 0.5;
+
+    final double loadFactor;
+    final int initialCapacity;
+
+    long[] metadatas;
+    long mask;
+    int filled;
+    int deleted;
+    int resizeThreshold;
+
+    /**
+     * Sizes the table for expectedSize entries, but leaves it to the subclass to allocate it once its own fields are
+     * set
+     */
+    SwissTable(int expectedSize, double loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        this.loadFactor = loadFactor;
+        this.initialCapacity = getCapacityFor(expectedSize);
+    }
+
+    /**
+     * Replaces the table with an empty one of the given capacity.  Subclasses allocate their key and value arrays
+     * alongside.
+     */
+    void allocate(int capacity) {
+        metadatas = new long[capacity / BYTES]; // metadata long represents 8 bytes of metadata
+        mask = capacity - 1 & KEYS_MASK;
+        resizeThreshold = (int) (loadFactor * capacity);
+        filled = 0;
+        deleted = 0;
+    }
+
+    /**
+     * Moves every entry into a new table of the given capacity, which drops the tombstones
+     */
+    abstract void rehash(int newCapacity);
+
+    /**
+     * @return the hash of the key at the given index
+     */
+    abstract long hashAt(int index);
+
+    /**
+     * @return the key at the given index, widened to a long
+     */
+    abstract long keyAt(int index);
+
+    /**
+     * Moves the entry at from to the free slot at to
+     */
+    abstract void moveEntry(int from, int to);
+
+    /**
+     * Swaps the entries at the given indexes
+     */
+    abstract void swapEntries(int first, int second);
+
+    /**
+     * Ensures that the map can hold desiredCapacity more entries than it currently holds without being rehashed.
+     *
+     * @param desiredCapacity the number of entries which are about to be added
+     */
+    public void ensureCapacity(int desiredCapacity) {
+        if (desiredCapacity > resizeThreshold - 1 - filled) {
+            int newCapacity = getCapacityFor(filled - deleted + desiredCapacity);
+            if (newCapacity > capacity()) {
+                rehash(newCapacity);
+            } else {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest power of two size which holds the current entries below the resize threshold,
+     * dropping any tombstones along the way.
+     */
+    public void trimToSize() {
+        int newCapacity = getCapacityFor(filled - deleted);
+        if (newCapacity < capacity()) {
+            rehash(newCapacity);
+        } else if (deleted > 0) {
+            compact();
+        }
+    }
+
+    public int size() {
+        return filled - deleted;
+    }
+
+    public boolean isEmpty() {
+        return filled == deleted;
+    }
+
+    /**
+     * @return the number of slots in the table, used and unused
+     */
+    final int capacity() {
+        return metadatas.length * BYTES;
+    }
+
+    /**
+     * @return the number of groups in the table
+     */
+    final int groupCount() {
+        return metadatas.length;
+    }
+
+    /**
+     * @return true if inserting one more key into an empty slot would rehash or compact the table
+     */
+    final boolean isFull() {
+        return filled + 1 >= resizeThreshold;
+    }
+
+    /**
+     * @return the capacity which the table would be rebuilt at once it is full: the same when it is mostly tombstones,
+     * which is when it would be compacted, and double otherwise
+     */
+    final int getRebuildCapacity() {
+        return deleted > (filled + 1) * MAX_TOMBSTONE_RATIO ? capacity() : Math.min(MAX_SIZE, capacity() * 2);
+    }
+
+    /**
+     * Returns the smallest power of two table size which holds the given number of entries without reaching the resize
+     * threshold
+     */
+    final int getCapacityFor(int size) {
+        int capacity = INITIAL_SIZE;
+        while (capacity < MAX_SIZE && (int) (loadFactor * capacity) <= size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Returns the index of the key, or -1 if it is absent
+     */
+    final int indexOf(long key, long hash) {
+        long keyWord = fillWordWithByte(getKeyByte(hash));
+        int location = getLocationFromHash(hash);
+        int step = 0;
+        while (true) {
+            long metadata = metadatas[keyIndexToMetadataIndex(location)];
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                if (keyAt(location + indexOfByte) == key) {
+                    return location + indexOfByte;
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            // Was not a match -- was there an empty entry or only tombstones and other keys?
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return -1;
+            }
+
+            step += BYTES;
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Returns the index of the key if there is a match.  Returns (-location - 1) of the first free space along the
+     * probe sequence if there was no match, where a free space is either an empty slot or a tombstone.  It is presumed
+     * that the table always contains at least one empty slot.
+     */
+    final int find(long key, long keyByte, long hash) {
+        long keyWord = fillWordWithByte(keyByte);
+        int location = getLocationFromHash(hash);
+        int firstFree = -1;
+        int step = 0;
+        while (true) {
+            long metadata = metadatas[keyIndexToMetadataIndex(location)];
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                if (keyAt(location + indexOfByte) == key) {
+                    return location + indexOfByte;
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            // Remember the first tombstone or empty slot, so that an insert can reuse it
+            if (firstFree < 0) {
+                indexOfByte = getIndexOfFreeByte(metadata);
+                if (indexOfByte <= 7) {
+                    firstFree = location + indexOfByte;
+                }
+            }
+
+            // Was not a match -- was there an empty entry or only tombstones and other keys?
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return -(firstFree + 1);
+            }
+
+            step += BYTES;
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Returns the number of groups which a lookup of the given key visits, whether or not the key is present
+     */
+    final int getProbeLength(long key, long hash) {
+        long keyWord = fillWordWithByte(getKeyByte(hash));
+        int location = getLocationFromHash(hash);
+        int step = 0;
+        for (int groups = 1; ; groups++) {
+            long metadata = metadatas[keyIndexToMetadataIndex(location)];
+            long candidates = metadata;
+            int indexOfByte = getIndexOfByte(candidates, keyWord);
+
+            while (indexOfByte <= 7) {
+                if (keyAt(location + indexOfByte) == key) {
+                    return groups;
+                }
+                candidates = unsetBitAtIndex(candidates, indexOfByte);
+                indexOfByte = getIndexOfByte(candidates, keyWord);
+            }
+
+            if (getIndexOfZeroByte(metadata) <= 7) {
+                return groups;
+            }
+
+            step += BYTES;
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Returns the first empty slot or tombstone along the probe sequence which starts at the given location
+     */
+    final int findFree(int location) {
+        for (int step = BYTES; ; step += BYTES) {
+            int indexOfByte = getIndexOfFreeByte(metadatas[keyIndexToMetadataIndex(location)]);
+            if (indexOfByte <= 7) {
+                return location + indexOfByte;
+            }
+            location = rangeReduction(location + step);
+        }
+    }
+
+    /**
+     * Records the entry which the subclass has just written at the given free location, which is either empty or a
+     * tombstone.  If the table has run out of empty slots it is compacted in place when mostly tombstones, and doubled
+     * in size otherwise.
+     */
+    final void occupy(int location, long keyByte) {
+        int metadataIndex = keyIndexToMetadataIndex(location);
+        int metadataWordIndex = keyIndexToMetadataWordIndex(location);
+        if (getByteAtIndex(metadatas[metadataIndex], metadataWordIndex) == TOMBSTONE_BYTE) {
+            // Reusing a tombstone does not consume an empty slot
+            deleted--;
+        } else {
+            filled++;
+        }
+        setKeyByteInMetadata(metadatas, metadataIndex, metadataWordIndex, keyByte);
+        if (filled >= resizeThreshold) {
+            if (deleted > filled * MAX_TOMBSTONE_RATIO) {
+                compact();
+            } else {
+                rehash(capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry at the given index.  If its group still has an empty slot, no probe sequence can have passed
+     * through the group, so the slot can be emptied outright; otherwise it must be left as a tombstone.
+     */
+    void removeAt(int index) {
+        if (erase(index)) {
+            filled--;
+        } else {
+            deleted++;
+        }
+    }
+
+    /**
+     * Marks the slot at the given index as empty or as a tombstone, as {@link #removeAt(int)} does, but leaves the
+     * counts alone.  It only touches the group of the slot.
+     *
+     * @return true if the slot was emptied, false if it was left as a tombstone
+     */
+    final boolean erase(int index) {
+        int metadataIndex = keyIndexToMetadataIndex(index);
+        if (getIndexOfZeroByte(metadatas[metadataIndex]) <= 7) {
+            setKeyByteInMetadata(metadatas, metadataIndex, keyIndexToMetadataWordIndex(index), EMPTY_BYTE);
+            return true;
+        }
+        setKeyByteInMetadata(metadatas, metadataIndex, keyIndexToMetadataWordIndex(index), TOMBSTONE_BYTE);
+        return false;
+    }
+
+    /**
+     * Rehashes the table in place at the same capacity, dropping its tombstones without allocating.  Every key byte
+     * is first turned into a tombstone which marks its entry as pending, and every tombstone into an empty slot.  Each
+     * pending entry is then moved to the first free slot along its probe sequence, swapping places with any pending
+     * entry which is in the way.  This is the same approach as abseil's drop_deletes_without_resize.
+     */
+    final void compact() {
+        for (int i = 0; i < metadatas.length; i++) {
+            long present = metadatas[i] & MOST_SIGNIFICANT_BYTE_BITS;
+            metadatas[i] = present - (present >>> 7); // Turns each 0x80 into 0x7F, and everything else into 0
+        }
+
+        int capacity = capacity();
+        for (int index = 0; index < capacity; index++) {
+            int metadataIndex = keyIndexToMetadataIndex(index);
+            int metadataWordIndex = keyIndexToMetadataWordIndex(index);
+            if (getByteAtIndex(metadatas[metadataIndex], metadataWordIndex) != TOMBSTONE_BYTE) {
+                continue;
+            }
+
+            long hash = hashAt(index);
+            long keyByte = getKeyByte(hash);
+            int probeStart = getLocationFromHash(hash);
+            int location = findFree(probeStart);
+
+            // The entry is already in the first group of its probe sequence which has room for it
+            if (getProbeOffset(location, probeStart) == getProbeOffset(index, probeStart)) {
+                setKeyByteInMetadata(metadatas, metadataIndex, metadataWordIndex, keyByte);
+                continue;
+            }
+
+            int newMetadataIndex = keyIndexToMetadataIndex(location);
+            int newMetadataWordIndex = keyIndexToMetadataWordIndex(location);
+            boolean pending = getByteAtIndex(metadatas[newMetadataIndex], newMetadataWordIndex) == TOMBSTONE_BYTE;
+            setKeyByteInMetadata(metadatas, newMetadataIndex, newMetadataWordIndex, keyByte);
+            if (pending) {
+                // Swap with the pending entry and process it next, in this entry's old slot
+                swapEntries(index, location);
+                index--;
+            } else {
+                setKeyByteInMetadata(metadatas, metadataIndex, metadataWordIndex, EMPTY_BYTE);
+                moveEntry(index, location);
+            }
+        }
+        filled -= deleted;
+        deleted = 0;
+    }
+
+    /**
+     * Returns the number of groups between the start of a probe sequence and the given location
+     */
+    private int getProbeOffset(int location, int probeStart) {
+        return keyIndexToMetadataIndex((location - probeStart) & (capacity() - 1));
+    }
+
+    final int getLocationFromHash(long hash) {
+        return rangeReduction(hash >>> 7);
+    }
+
+    final int rangeReduction(long h1) {
+        return (int) (h1 & mask); // Mask should always be less than integer max value
+    }
+}
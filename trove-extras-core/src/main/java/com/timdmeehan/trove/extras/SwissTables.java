@@ -0,0 +1,126 @@
+package com.timdmeehan.trove.extras;
+
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * The metadata encoding and SWAR bit functions shared by the SwissTable based collections.
+ *
+ * Each slot of a table has a metadata byte, eight of which are packed into a long to form a group.  A byte is zero for
+ * an empty slot, {@link #TOMBSTONE_BYTE} for a removed slot, and otherwise has its high bit set with the low 7 bits of
+ * the key's hash (H2) below it.  The remaining bits of the hash (H1) choose the group where the probe starts.
+ */
+final class SwissTables {
+    // Copied from SmoothieMap implementation of SwissTable
+    static final long LEAST_SIGNIFICANT_BYTE_BITS = 0x0101010101010101L;
+    static final long MOST_SIGNIFICANT_BYTE_BITS = 0x8080808080808080L;
+    // Copied from fastutil
+    /**
+     * 2<sup>32</sup> &middot; &phi;, &phi; = (&#x221A;5 &minus; 1)/2.
+     */
+    static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+    static final long METADATA_MASK = 0x7;
+    static final long KEYS_MASK = ~METADATA_MASK;
+    static final long H2_MASK = 0x7F;
+    static final long KEY_BYTE_MASK = 0x80;
+    // Marks a removed slot; any byte without the high bit set which is not zero.  Probes continue past tombstones,
+    // but inserts may reuse them.
+    static final long TOMBSTONE_BYTE = 0x7F;
+    static final long EMPTY_BYTE = 0x00;
+    static final long BYTE_MASK = 0xFF;
+
+    private SwissTables() {
+    }
+
+    static int keyIndexToMetadataIndex(int location) {
+        return location >>> 3; // Equivalent to location / Long.BYTES
+    }
+
+    static int keyIndexToMetadataWordIndex(int location) {
+        return (int) (location & METADATA_MASK); // // Equivalent to location % Long.BYTES
+    }
+
+    static long unsetBitAtIndex(long metadata, int indexOfByte) {
+        return metadata & ~(1L << (indexOfByte * 8 + 7));
+    }
+
+    // From fastutil
+    static long mix(final long x) {
+        long h = x * LONG_PHI;
+        h ^= h >>> 32;
+        return h ^ (h >>> 16);
+    }
+
+    // The 64 bit finalizer of MurmurHash3
+    static long fmix64(long x) {
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+
+    // From SmoothieMap
+    static long fillWordWithByte(long metadata) {
+        // Equivalent to: (metadata << 24) | (metadata << 16) | (metadata << 8) | metadata;
+        return LEAST_SIGNIFICANT_BYTE_BITS * metadata;
+    }
+
+    // Returns 8 if there was no 0
+    static int getIndexOfZeroByte(long v) {
+        return keyIndexToMetadataIndex(numberOfTrailingZeros(getZeroBytesMask(v)));
+    }
+
+    // Returns the index of the first empty or tombstone byte, or 8 if every byte is a key byte
+    static int getIndexOfFreeByte(long v) {
+        return keyIndexToMetadataIndex(numberOfTrailingZeros(~v & MOST_SIGNIFICANT_BYTE_BITS));
+    }
+
+    static long getByteAtIndex(long metadata, int indexOfByte) {
+        return (metadata >>> (indexOfByte << 3)) & BYTE_MASK;
+    }
+
+    static long getZeroBytesMask(long v) {
+        return (v - LEAST_SIGNIFICANT_BYTE_BITS) & ~v & MOST_SIGNIFICANT_BYTE_BITS;
+    }
+
+    /**
+     * Returns the index of the input byte into a word which represents 4 key bytes
+     *
+     * @param x       the word to check for existence
+     * @param keyWord the word which represents 4 consecutive key bytes to check
+     * @return the index of the key byte, or some number > 7 if not present
+     */
+    static int getIndexOfByte(long x, long keyWord) {
+        return getIndexOfZeroByte(x ^ keyWord);
+    }
+
+    static long getKeyByte(long hash) {
+        long h2 = hash & H2_MASK;
+        return h2 | KEY_BYTE_MASK;
+    }
+
+    /**
+     * Sets the given keyByte into the metadata, replacing whatever byte was previously there
+     *
+     * @param metadatas         the metadata array
+     * @param metadataIndex     the index into the metadata array
+     * @param metadataWordIndex the index into a word in the metadata array
+     * @param keyByte           the key byte to insert
+     */
+    static void setKeyByteInMetadata(long[] metadatas, int metadataIndex, int metadataWordIndex, long keyByte) {
+        metadatas[metadataIndex] = withKeyByte(metadatas[metadataIndex], metadataWordIndex, keyByte);
+    }
+
+    /**
+     * Returns the metadata word with the given keyByte in place of the byte at the given index, for tables which do
+     * not keep their metadata in a long array
+     *
+     * @param metadata          the metadata word
+     * @param metadataWordIndex the index of the byte to replace
+     * @param keyByte           the key byte to insert
+     */
+    static long withKeyByte(long metadata, int metadataWordIndex, long keyByte) {
+        int shift = metadataWordIndex << 3;
+        return (metadata & ~(BYTE_MASK << shift)) | (keyByte << shift);
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Trove collections built on SwissTable style hash tables, and bit sets.
+ *
+ * The maps of every key and value type other than {@link com.timdmeehan.trove.extras.IntIntSwissMap}, and the sets,
+ * are generated at compile time from the templates of trove-extras-codegen, and share the metadata functions of
+ * {@code SwissTables}.  The generated maps and sets and {@code IntIntSwissMap} also share the probing, removal and
+ * compaction of their table through {@code SwissTable}.
+ */
+@GenerateSwissMaps({"IntLong", "LongInt", "LongLong", "LongObject"})
+@GenerateSwissSets({"Int", "Long"})
+package com.timdmeehan.trove.extras;
+
+import com.timdmeehan.trove.extras.codegen.GenerateSwissMaps;
+import com.timdmeehan.trove.extras.codegen.GenerateSwissSets;
@@ -0,0 +1,26 @@
+package com.timdmeehan.trove.extras;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link BufferReleaser} which runs a direct buffer's cleaner through {@link Unsafe#invokeCleaner}, the supported way
+ * to free a direct buffer early since JDK 9.  Unsafe lives in the jdk.unsupported module, which every JDK exports, so
+ * no extra JVM flags are needed.
+ */
+final class UnsafeBufferReleaser implements BufferReleaser {
+    private final Unsafe unsafe;
+
+    UnsafeBufferReleaser() throws ReflectiveOperationException {
+        Field field = Unsafe.class.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        this.unsafe = (Unsafe) field.get(null);
+    }
+
+    @Override
+    public void release(ByteBuffer buffer) {
+        unsafe.invokeCleaner(buffer);
+    }
+}
@@ -0,0 +1,70 @@
+package com.timdmeehan.trove.extras;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+import static java.lang.Long.numberOfTrailingZeros;
+
+/**
+ * A {@link GroupProbe} which uses the Vector API to match 16 metadata bytes per comparison, the same as SwissTable's
+ * SSE2 probe.  The table keeps its 8 byte groups, and the first comparison covers the group where the probe starts and
+ * the one after it, which is the next group of the probe sequence anyway.  A key can only be in the second group if
+ * the first had no empty slot when it was inserted, and a group without an empty slot never gains one until the table
+ * is rebuilt, so checking the candidates of both groups before looking for an empty slot finds exactly what two SWAR
+ * steps would.  Later groups of the triangular probe sequence are not adjacent, so the rare probe which gets that far
+ * continues one group at a time with SWAR.
+ *
+ * The jdk.incubator.vector module must be added to the JVM with {@code --add-modules jdk.incubator.vector}.
+ */
+final class VectorGroupProbe implements GroupProbe {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_128;
+    private static final long LEAST_SIGNIFICANT_BYTE_BITS = 0x0101010101010101L;
+    private static final long MOST_SIGNIFICANT_BYTE_BITS = 0x8080808080808080L;
+
+    @Override
+    public int find(long[] metadatas, int[] keys, long mask, int location, long keyByte, int key) {
+        int metadataIndex = location >>> 3;
+        int step = 8;
+        // The last group wraps around to the first, so it is probed on its own
+        if (metadataIndex + 1 < metadatas.length) {
+            ByteVector group = LongVector.fromArray(SPECIES, metadatas, metadataIndex).reinterpretAsBytes();
+            long matches = group.eq((byte) keyByte).toLong();
+            while (matches != 0) {
+                int index = location + numberOfTrailingZeros(matches);
+                if (keys[index] == key) {
+                    return index;
+                }
+                matches &= matches - 1;
+            }
+            if (group.eq((byte) 0).anyTrue()) {
+                return -1;
+            }
+            // Carry on from the second group as if it had been probed on its own
+            location += 8;
+            step = 16;
+        }
+
+        long keyWord = LEAST_SIGNIFICANT_BYTE_BITS * keyByte;
+        while (true) {
+            long metadata = metadatas[location >>> 3];
+            long matches = getZeroBytesMask(metadata ^ keyWord);
+            while (matches != 0) {
+                int index = location + (numberOfTrailingZeros(matches) >>> 3);
+                if (keys[index] == key) {
+                    return index;
+                }
+                matches &= matches - 1;
+            }
+            if (getZeroBytesMask(metadata) != 0) {
+                return -1;
+            }
+            location = (int) ((location + step) & mask);
+            step += 8;
+        }
+    }
+
+    private static long getZeroBytesMask(long v) {
+        return (v - LEAST_SIGNIFICANT_BYTE_BITS) & ~v & MOST_SIGNIFICANT_BYTE_BITS;
+    }
+}
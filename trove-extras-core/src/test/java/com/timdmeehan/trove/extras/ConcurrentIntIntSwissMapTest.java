@@ -0,0 +1,158 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntIntIterator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentIntIntSwissMapTest extends IntIntMapContractTest<ConcurrentIntIntSwissMap> {
+
+    @Override
+    ConcurrentIntIntSwissMap createMap(int expectedSize) {
+        return new ConcurrentIntIntSwissMap(expectedSize, 0.75, DEFAULT, DEFAULT, 16);
+    }
+
+    @Override
+    boolean iteratorFailsFast() {
+        return false;
+    }
+
+    @Test
+    public void testConstruction() {
+        assertEquals(new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 1).getSegmentCount(), 1);
+        assertEquals(new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 5).getSegmentCount(), 8);
+        assertEquals(new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 32).getSegmentCount(), 32);
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentIntIntSwissMap(-1, 0.75, DEFAULT, DEFAULT, 1));
+
+        // A single segment holds every key
+        ConcurrentIntIntSwissMap map = new ConcurrentIntIntSwissMap(1_000, 0.75, DEFAULT, DEFAULT, 1);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, -i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(map.get(i), -i);
+        }
+        assertEquals(map.getNoEntryKey(), DEFAULT);
+        assertEquals(map.getNoEntryValue(), DEFAULT);
+    }
+
+    @Test
+    public void testUsingItself() {
+        // Each of these used to wait for a lock of a segment it already held
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            ConcurrentIntIntSwissMap map = new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 4);
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i % 10);
+            }
+            map.putAll(map);
+            assertEquals(map.size(), 100);
+            assertTrue(map.keySet().retainAll(map.valueCollection()));
+            assertEquals(map.size(), 10);
+            assertTrue(map.valueCollection().containsAll(map.keySet()));
+            assertTrue(map.keySet().removeAll(map.valueCollection()));
+            assertTrue(map.isEmpty());
+        });
+    }
+
+    @Test
+    public void testSetValueAfterRemove() {
+        ConcurrentIntIntSwissMap map = new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 4);
+        map.put(1, 1);
+        TIntIntIterator iterator = map.iterator();
+        assertThrows(IllegalStateException.class, () -> iterator.setValue(2));
+        iterator.advance();
+        iterator.remove();
+        assertThrows(IllegalStateException.class, () -> iterator.setValue(2));
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        ConcurrentIntIntSwissMap map = new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 4);
+        int threads = 4;
+        int increments = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < increments; i++) {
+                        // Every thread counts the shared keys, and puts keys of its own
+                        map.adjustOrPutValue(i % 1_000, 1, 1);
+                        map.put(thread * increments + i + 1_000, i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(map.size(), 1_000 + threads * increments);
+        for (int key = 0; key < 1_000; key++) {
+            assertEquals(map.get(key), threads * increments / 1_000);
+        }
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < increments; i++) {
+                assertEquals(map.get(t * increments + i + 1_000), i);
+            }
+        }
+    }
+
+    @Test
+    public void testOptimisticReadsDuringResize() throws Exception {
+        // Few segments, which start small, so that the readers keep racing rehashes
+        ConcurrentIntIntSwissMap map = new ConcurrentIntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, 2);
+        AtomicInteger published = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 500_000; i++) {
+                    map.put(i, -i);
+                    // Removes keep tombstones and compactions in the mix
+                    if (i % 3 == 0) {
+                        map.remove(i);
+                    }
+                    published.set(i + 1);
+                }
+                done.set(true);
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!done.get()) {
+                        int limit = published.get();
+                        if (limit == 0) {
+                            continue;
+                        }
+                        int key = random.nextInt(limit);
+                        assertEquals(map.get(key), key % 3 == 0 ? DEFAULT : -key);
+                        assertEquals(map.containsKey(key), key % 3 != 0);
+                        assertFalse(map.containsKey(-1 - key));
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntIncrementalSwissMapTest extends IntIntMapContractTest<IntIntIncrementalSwissMap> {
+
+    @Override
+    IntIntIncrementalSwissMap createMap(int expectedSize) {
+        return new IntIntIncrementalSwissMap(expectedSize, 0.75, DEFAULT, DEFAULT);
+    }
+
+    @Override
+    int capacity(IntIntIncrementalSwissMap map) {
+        return map.capacity();
+    }
+
+    @Override
+    void ensureCapacity(IntIntIncrementalSwissMap map, int desiredCapacity) {
+        map.ensureCapacity(desiredCapacity);
+    }
+
+    @Override
+    void trimToSize(IntIntIncrementalSwissMap map) {
+        map.trimToSize();
+    }
+
+    @Test
+    public void testGrowth() {
+        IntIntIncrementalSwissMap map = new IntIntIncrementalSwissMap(0.75, DEFAULT, DEFAULT);
+        int doublings = 0;
+        int capacity = map.capacity();
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.put(i, -i), DEFAULT);
+            if (map.capacity() != capacity) {
+                assertEquals(map.capacity(), capacity * 2);
+                capacity = map.capacity();
+                doublings++;
+                // Every entry is still found, in whichever table it is in
+                for (int j = 0; j <= i; j += 97) {
+                    assertEquals(map.get(j), -j);
+                }
+            }
+            assertEquals(map.size(), i + 1);
+        }
+        // 16 slots grow to 256K one doubling at a time, and all but the smallest tables are moved over several puts
+        assertEquals(doublings, 14);
+        // The last rebuild started at 98,304 entries, and moving 16K groups takes 4K more updates
+        assertTrue(map.isMigrating());
+        assertEquals(map.capacity(), 1 << 18);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.get(i), -i);
+        }
+        assertEquals(map.get(100_000), DEFAULT);
+    }
+
+    @RepeatedTest(100)
+    public void testChurnWhileGrowing() {
+        IntIntIncrementalSwissMap map = new IntIntIncrementalSwissMap(0.75, DEFAULT, DEFAULT);
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A growing key space, so that rebuilds keep happening while entries are updated and removed
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(i / 4 + 1);
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                    assertEquals(map.put(key, i), expected.put(key, i));
+                    break;
+                case 2:
+                    assertEquals(map.adjustOrPutValue(key, 1, i), expected.adjustOrPutValue(key, 1, i));
+                    break;
+                case 3:
+                    assertEquals(map.adjustValue(key, 1), expected.adjustValue(key, 1));
+                    break;
+                case 4:
+                    assertEquals(map.get(key), expected.get(key));
+                    assertEquals(map.containsKey(key), expected.containsKey(key));
+                    break;
+                default:
+                    assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (int key = 0; key < 12_500; key++) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+        assertEquals(new TIntHashSet(map.keys()), expected.keySet());
+    }
+
+    @Test
+    public void testWhileMigrating() {
+        IntIntIncrementalSwissMap map = new IntIntIncrementalSwissMap(0.75, DEFAULT, DEFAULT);
+        int size = 0;
+        while (!map.isMigrating()) {
+            map.put(size, size);
+            size++;
+        }
+
+        // Entries in both tables
+        assertEquals(map.keys().length, size);
+        assertEquals(map.values().length, size);
+        assertEquals(map.keySet(), new TIntHashSet(map.keys()));
+        long[] sum = {0};
+        assertTrue(map.forEachEntry((key, value) -> {
+            assertEquals(key, value);
+            sum[0] += value;
+            return true;
+        }));
+        assertEquals(sum[0], (long) size * (size - 1) / 2);
+
+        TIntIntIterator iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.setValue(iterator.value() * 2), iterator.key());
+            if (iterator.key() % 2 == 0) {
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+            count++;
+        }
+        assertEquals(count, size);
+        assertTrue(map.isMigrating());
+
+        map.transformValues(value -> value + 1);
+        assertTrue(map.retainEntries((key, value) -> key % 3 != 0));
+        for (int i = 0; i < size; i++) {
+            assertEquals(map.get(i), i % 2 == 0 || i % 3 == 0 ? DEFAULT : i * 2 + 1);
+        }
+
+        map.ensureCapacity(1_000);
+        assertFalse(map.isMigrating());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(map.capacity(), 16);
+    }
+}
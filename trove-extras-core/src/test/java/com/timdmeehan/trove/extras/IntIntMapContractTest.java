@@ -0,0 +1,295 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The behaviour which every {@link TIntIntMap} of this package shares, whatever its layout.  The test of each map
+ * extends it with a factory for that map, and adds the tests of what only that map does.
+ *
+ * @param <M> the type of map under test
+ */
+public abstract class IntIntMapContractTest<M extends TIntIntMap> {
+
+    static final int DEFAULT = 0XDEADBEEF;
+
+    private final List<M> maps = new ArrayList<>();
+
+    /**
+     * Creates a map which can hold expectedSize entries before it needs to be rehashed, with a load factor of 0.75 and
+     * DEFAULT as its no entry key and value.
+     */
+    abstract M createMap(int expectedSize);
+
+    /**
+     * Sizing is not part of {@link TIntIntMap}, so the tests of it reach the map through this and the next two
+     * methods.  Maps which are not one table keep the default, which skips those tests.
+     *
+     * @return the number of slots in the table of the map, or -1 if it has no single table
+     */
+    int capacity(M map) {
+        return -1;
+    }
+
+    void ensureCapacity(M map, int desiredCapacity) {
+        throw new UnsupportedOperationException();
+    }
+
+    void trimToSize(M map) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return whether an iterator fails when the map is modified other than through it, rather than being weakly
+     * consistent
+     */
+    boolean iteratorFailsFast() {
+        return true;
+    }
+
+    private M newMap(int expectedSize) {
+        M map = createMap(expectedSize);
+        maps.add(map);
+        return map;
+    }
+
+    @AfterEach
+    public void closeMaps() throws IOException {
+        for (M map : maps) {
+            if (map instanceof Closeable) {
+                ((Closeable) map).close();
+            }
+        }
+    }
+
+    @Test
+    public void testBasicOperations() {
+        M map = newMap(0);
+        assertTrue(map.isEmpty());
+        assertEquals(map.getNoEntryKey(), DEFAULT);
+        assertEquals(map.getNoEntryValue(), DEFAULT);
+        assertEquals(map.put(123, 456), DEFAULT);
+        assertEquals(map.get(123), 456);
+        assertEquals(map.put(123, 789), 456);
+        assertEquals(map.get(123), 789);
+        assertEquals(map.putIfAbsent(124, 1), DEFAULT);
+        assertEquals(map.putIfAbsent(124, 2), 1);
+        assertEquals(map.get(124), 1);
+        assertEquals(map.get(125), DEFAULT);
+        assertFalse(map.containsKey(125));
+        assertEquals(map.size(), 2);
+        assertEquals(map.remove(124), 1);
+        assertEquals(map.remove(124), DEFAULT);
+        assertEquals(map.size(), 1);
+        assertFalse(map.isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> createMap(-1));
+    }
+
+    @RepeatedTest(20)
+    public void testRandomChurn() {
+        M map = newMap(0);
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A small key space forces frequent removals, tombstones and rebuilt tables
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(5)) {
+                case 0:
+                    assertEquals(map.put(key, i), expected.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(map.putIfAbsent(key, i), expected.putIfAbsent(key, i));
+                    break;
+                case 2:
+                    assertEquals(map.adjustOrPutValue(key, 1, -1), expected.adjustOrPutValue(key, 1, -1));
+                    break;
+                case 3:
+                    assertEquals(map.increment(key), expected.increment(key));
+                    break;
+                default:
+                    assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(map.get(key), expected.get(key));
+            assertEquals(map.containsKey(key), expected.containsKey(key));
+        }
+        assertEquals(new TIntHashSet(map.keys()), expected.keySet());
+        assertEquals(map.keySet(), expected.keySet());
+        assertEquals(map.values().length, expected.size());
+    }
+
+    @Test
+    public void testCapacity() {
+        M map = newMap(1_000);
+        assumeTrue(capacity(map) >= 0);
+        assertEquals(capacity(map), 2_048);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(capacity(map), 2_048);
+        ensureCapacity(map, 1_000);
+        assertEquals(capacity(map), 4_096);
+
+        // Removing most entries from a full table leaves tombstones, which trimming drops
+        for (int i = 0; i < 900; i++) {
+            map.remove(i);
+        }
+        trimToSize(map);
+        assertEquals(capacity(map), 256);
+        trimToSize(map);
+        assertEquals(capacity(map), 256);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(map.get(i), i < 900 ? DEFAULT : i);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(capacity(map), 2_048);
+    }
+
+    @Test
+    public void testChurnReusesTombstones() {
+        M map = newMap(0);
+        assumeTrue(capacity(map) >= 0);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        // The table may grow once while the first tombstones accumulate, but must never grow beyond that
+        int maxCapacity = capacity(map) * 2;
+
+        // Keep the size stable while cycling through many more keys than the table could ever hold
+        for (int i = 1_000; i < 200_000; i++) {
+            assertEquals(map.remove(i - 1_000), i - 1_000);
+            assertEquals(map.putIfAbsent(i, i), DEFAULT);
+            assertEquals(map.size(), 1_000);
+            assertTrue(capacity(map) <= maxCapacity);
+        }
+        for (int i = 199_000; i < 200_000; i++) {
+            assertEquals(map.get(i), i);
+        }
+        assertEquals(map.get(198_999), DEFAULT);
+    }
+
+    @Test
+    public void testBulkOperations() {
+        M map = newMap(0);
+        TIntIntMap source = new TIntIntHashMap();
+        for (int i = 0; i < 1_000; i++) {
+            source.put(i, i * 2);
+        }
+        map.putAll(source);
+        map.putAll(Collections.singletonMap(1_000, 2_000));
+        assertEquals(map.size(), 1_001);
+        assertTrue(map.containsValue(2_000));
+        assertFalse(map.containsValue(1));
+        assertTrue(map.adjustValue(1_000, 1));
+        assertFalse(map.adjustValue(1_001, 1));
+        assertEquals(map.get(1_000), 2_001);
+
+        long[] sum = {0};
+        assertTrue(map.forEachKey(key -> {
+            sum[0] += key;
+            return true;
+        }));
+        assertEquals(sum[0], 500_500);
+        assertFalse(map.forEachValue(value -> value < 100));
+
+        map.transformValues(value -> -value);
+        assertEquals(map.get(10), -20);
+        assertTrue(map.retainEntries((key, value) -> key % 2 == 0));
+        assertEquals(map.size(), 501);
+        assertTrue(map.forEachEntry((key, value) -> key % 2 == 0 && value == -key * 2 - (key == 1_000 ? 1 : 0)));
+        assertEquals(map.keys(new int[600]).length, 600);
+        assertEquals(map.values(new int[10]).length, 501);
+        assertTrue(map.valueCollection().contains(-20));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(map.get(10), DEFAULT);
+    }
+
+    @Test
+    public void testIterator() {
+        M map = newMap(0);
+        assertFalse(map.iterator().hasNext());
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        for (int i = 0; i < 10_000; i++) {
+            int key = ThreadLocalRandom.current().nextInt();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        TIntIntIterator iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.value(), expected.get(iterator.key()));
+            assertEquals(iterator.setValue(iterator.value() + 1), expected.get(iterator.key()));
+            count++;
+        }
+        assertEquals(count, expected.size());
+        assertThrows(NoSuchElementException.class, iterator::advance);
+
+        // Remove every other entry through the iterator
+        iterator = map.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            if ((iterator.value() & 1) == 0) {
+                expected.remove(iterator.key());
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+        }
+        assertEquals(map.size(), expected.size());
+        for (int key : expected.keys()) {
+            assertEquals(map.get(key), expected.get(key) + 1);
+        }
+
+        if (iteratorFailsFast()) {
+            iterator = map.iterator();
+            iterator.advance();
+            map.remove(iterator.key());
+            assertThrows(ConcurrentModificationException.class, iterator::advance);
+        }
+    }
+
+    @Test
+    public void testViews() {
+        M map = newMap(0);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i % 10);
+        }
+        assertEquals(map.keySet(), new TIntHashSet(map.keys()));
+        assertTrue(map.valueCollection().contains(9));
+
+        assertTrue(map.keySet().removeAll(new int[] {0, 1, 2}));
+        assertEquals(map.size(), 97);
+        assertTrue(map.valueCollection().removeAll(new int[] {9}));
+        assertFalse(map.containsValue(9));
+        assertTrue(map.valueCollection().retainAll(new int[] {3}));
+        assertEquals(map.size(), 10);
+        assertEquals(map.valueCollection().toString(), "{3, 3, 3, 3, 3, 3, 3, 3, 3, 3}");
+
+        map.transformValues(value -> -value);
+        assertTrue(map.forEachEntry((key, value) -> key % 10 == 3 && value == -3));
+    }
+}
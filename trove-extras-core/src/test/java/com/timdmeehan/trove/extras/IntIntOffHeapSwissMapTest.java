@@ -0,0 +1,109 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntIntIterator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntOffHeapSwissMapTest extends IntIntMapContractTest<IntIntOffHeapSwissMap> {
+
+    @Override
+    IntIntOffHeapSwissMap createMap(int expectedSize) {
+        // Pages of two groups, so that every table of more than 16 slots spans several pages
+        return new IntIntOffHeapSwissMap(expectedSize, 0.75, DEFAULT, DEFAULT, 1);
+    }
+
+    @Override
+    int capacity(IntIntOffHeapSwissMap map) {
+        return map.capacity();
+    }
+
+    @Override
+    void ensureCapacity(IntIntOffHeapSwissMap map, int desiredCapacity) {
+        map.ensureCapacity(desiredCapacity);
+    }
+
+    @Override
+    void trimToSize(IntIntOffHeapSwissMap map) {
+        map.trimToSize();
+    }
+
+    @Test
+    public void testGrowth() {
+        try (IntIntOffHeapSwissMap map = new IntIntOffHeapSwissMap(0, 0.875, DEFAULT, DEFAULT, 4)) {
+            for (int i = 0; i < 100_000; i++) {
+                assertEquals(map.put(i * 31, i), DEFAULT);
+            }
+            assertEquals(map.size(), 100_000);
+            assertEquals(map.capacity(), 131_072);
+            assertEquals(map.getPageCount(), 1_024);
+            for (int i = 0; i < 100_000; i++) {
+                assertEquals(map.get(i * 31), i);
+            }
+            assertEquals(map.get(1), DEFAULT);
+        }
+
+        // One page holds the whole table until it outgrows the default page size
+        try (IntIntOffHeapSwissMap map = new IntIntOffHeapSwissMap(100_000, 0.75, DEFAULT, DEFAULT)) {
+            assertEquals(map.capacity(), 262_144);
+            assertEquals(map.getPageCount(), 1);
+        }
+    }
+
+    @Test
+    public void testClose() {
+        IntIntOffHeapSwissMap map = new IntIntOffHeapSwissMap(0.75, DEFAULT, DEFAULT);
+        map.put(1, 1);
+        TIntIntIterator iterator = map.iterator();
+        map.close();
+        map.close();
+        assertEquals(map.getNoEntryValue(), DEFAULT);
+        assertThrows(IllegalStateException.class, map::size);
+        assertThrows(IllegalStateException.class, map::isEmpty);
+        assertThrows(IllegalStateException.class, map::capacity);
+        assertThrows(IllegalStateException.class, () -> map.get(1));
+        assertThrows(IllegalStateException.class, () -> map.put(1, 1));
+        assertThrows(IllegalStateException.class, () -> map.containsKey(1));
+        assertThrows(IllegalStateException.class, map::clear);
+        assertThrows(IllegalStateException.class, map::keys);
+        assertThrows(IllegalStateException.class, map::iterator);
+        assertThrows(IllegalStateException.class, iterator::hasNext);
+    }
+
+    @Test
+    public void testFailedClear() {
+        boolean[] fail = {false};
+        try (IntIntOffHeapSwissMap map = new IntIntOffHeapSwissMap(1_000, 0.75, DEFAULT, DEFAULT, 1) {
+            @Override
+            java.nio.ByteBuffer[] allocateTable(int capacity) {
+                if (fail[0]) {
+                    throw new OutOfMemoryError("Direct buffer memory");
+                }
+                return super.allocateTable(capacity);
+            }
+        }) {
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, -i);
+            }
+
+            // The old table must still be there, and not freed, when the new one cannot be allocated
+            fail[0] = true;
+            assertThrows(OutOfMemoryError.class, map::clear);
+            assertEquals(map.size(), 1_000);
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals(map.get(i), -i);
+            }
+            fail[0] = false;
+            map.clear();
+            assertTrue(map.isEmpty());
+        }
+    }
+
+    @Test
+    public void testBufferReleaser() {
+        // On JDK 17 and later, with the versioned classes on the class path, buffers are freed straight away
+        BufferReleaser releaser = BufferReleaser.load();
+        assertEquals(releaser.getClass().getSimpleName(), "UnsafeBufferReleaser");
+        releaser.release(java.nio.ByteBuffer.allocateDirect(1 << 20));
+    }
+}
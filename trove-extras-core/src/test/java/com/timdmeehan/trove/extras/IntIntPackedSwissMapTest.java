@@ -0,0 +1,72 @@
+package com.timdmeehan.trove.extras;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntPackedSwissMapTest extends IntIntMapContractTest<IntIntPackedSwissMap> {
+
+    @Override
+    IntIntPackedSwissMap createMap(int expectedSize) {
+        return new IntIntPackedSwissMap(expectedSize, 0.75, DEFAULT, DEFAULT);
+    }
+
+    @Override
+    int capacity(IntIntPackedSwissMap map) {
+        return map.capacity();
+    }
+
+    @Override
+    void ensureCapacity(IntIntPackedSwissMap map, int desiredCapacity) {
+        map.ensureCapacity(desiredCapacity);
+    }
+
+    @Override
+    void trimToSize(IntIntPackedSwissMap map) {
+        map.trimToSize();
+    }
+
+    @Test
+    public void testPut() {
+        IntIntPackedSwissMap map = new IntIntPackedSwissMap(0.75, DEFAULT, DEFAULT);
+        assertEquals(map.put(123, 456), DEFAULT);
+        assertEquals(map.get(123), 456);
+        assertEquals(map.put(123, 789), 456);
+        assertEquals(map.get(123), 789);
+        assertEquals(map.putIfAbsent(123, 1), 789);
+
+        // Negative keys and values must not bleed into each other's half of the entry
+        assertEquals(map.put(-1, -2), DEFAULT);
+        assertEquals(map.get(-1), -2);
+        assertTrue(map.adjustValue(-1, 3));
+        assertEquals(map.get(-1), 1);
+        assertTrue(map.adjustValue(-1, Integer.MAX_VALUE));
+        assertEquals(map.get(-1), Integer.MIN_VALUE);
+        assertTrue(map.containsKey(-1));
+    }
+
+    @Test
+    public void testPresized() {
+        IntIntPackedSwissMap map = new IntIntPackedSwissMap(10_000, 0.75, DEFAULT, DEFAULT);
+        int capacity = map.capacity();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        map.ensureCapacity(10_000);
+        capacity = map.capacity();
+        map.putAll(new IntIntSwissMap(0.75, DEFAULT, DEFAULT));
+        for (int i = 10_000; i < 20_000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        map.retainEntries((key, value) -> key < 100);
+        map.trimToSize();
+        assertEquals(map.capacity(), 256);
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(map.get(i), i < 100 ? i : DEFAULT);
+        }
+    }
+}
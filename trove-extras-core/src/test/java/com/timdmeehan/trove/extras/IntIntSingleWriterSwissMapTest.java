@@ -0,0 +1,132 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntIntIterator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntSingleWriterSwissMapTest extends IntIntMapContractTest<IntIntSingleWriterSwissMap> {
+
+    @Override
+    IntIntSingleWriterSwissMap createMap(int expectedSize) {
+        return new IntIntSingleWriterSwissMap(expectedSize, 0.75, DEFAULT, DEFAULT);
+    }
+
+    @Override
+    boolean iteratorFailsFast() {
+        return false;
+    }
+
+    @Override
+    int capacity(IntIntSingleWriterSwissMap map) {
+        return map.capacity();
+    }
+
+    @Override
+    void ensureCapacity(IntIntSingleWriterSwissMap map, int desiredCapacity) {
+        map.ensureCapacity(desiredCapacity);
+    }
+
+    @Override
+    void trimToSize(IntIntSingleWriterSwissMap map) {
+        map.trimToSize();
+    }
+
+    @Test
+    public void testExtremeEntries() {
+        IntIntSingleWriterSwissMap map = new IntIntSingleWriterSwissMap(0.75, DEFAULT, DEFAULT);
+        // Entries whose packed form is all zeros or all ones must still be found
+        map.put(0, 0);
+        map.put(-1, -1);
+        map.put(0, Integer.MIN_VALUE);
+        map.put(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        assertEquals(map.get(0), Integer.MIN_VALUE);
+        assertEquals(map.get(-1), -1);
+        assertEquals(map.get(Integer.MIN_VALUE), Integer.MAX_VALUE);
+        assertTrue(map.containsKey(0));
+        assertFalse(map.containsKey(1));
+        assertEquals(map.get(1), DEFAULT);
+        assertTrue(map.adjustValue(-1, 1));
+        assertEquals(map.get(-1), 0);
+        assertEquals(map.getNoEntryKey(), DEFAULT);
+        assertEquals(map.getNoEntryValue(), DEFAULT);
+    }
+
+    @Test
+    public void testSetValueAfterRemove() {
+        IntIntSingleWriterSwissMap map = new IntIntSingleWriterSwissMap(0, 0.75, DEFAULT, DEFAULT);
+        map.put(1, 1);
+        TIntIntIterator iterator = map.iterator();
+        assertThrows(IllegalStateException.class, () -> iterator.setValue(2));
+        iterator.advance();
+        iterator.remove();
+        assertThrows(IllegalStateException.class, () -> iterator.setValue(2));
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void testReadersDuringWrites() throws Exception {
+        IntIntSingleWriterSwissMap map = new IntIntSingleWriterSwissMap(0.75, DEFAULT, DEFAULT);
+        AtomicInteger published = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 500_000; i++) {
+                    map.put(i, -i);
+                    if (i % 3 == 0) {
+                        map.remove(i);
+                    }
+                    // Churned keys keep tombstones and rebuilt tables in the mix; the low bits of each value are its key's
+                    int churned = Integer.MIN_VALUE + random.nextInt(1_024);
+                    if (random.nextBoolean()) {
+                        map.put(churned, i << 10 | churned & 1_023);
+                    } else {
+                        map.remove(churned);
+                    }
+                    published.set(i + 1);
+                }
+                done.set(true);
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (!done.get()) {
+                        int limit = published.get();
+                        if (limit == 0) {
+                            continue;
+                        }
+                        int key = random.nextInt(limit);
+                        assertEquals(map.get(key), key % 3 == 0 ? DEFAULT : -key);
+                        assertEquals(map.containsKey(key), key % 3 != 0);
+                        assertFalse(map.containsKey(-1 - key));
+
+                        // A churned key is absent or has a value which was written with it, never another key's value
+                        int churned = Integer.MIN_VALUE + random.nextInt(1_024);
+                        int value = map.get(churned);
+                        assertTrue(value == DEFAULT || (value & 1_023) == (churned & 1_023));
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(map.size(), map.keys().length);
+        assertEquals(map.get(499_999), -499_999);
+    }
+}
@@ -1,20 +1,53 @@
 package com.timdmeehan.trove.extras;
 
+import gnu.trove.TIntCollection;
 import gnu.trove.iterator.TIntIterator;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+import static com.timdmeehan.trove.extras.SwissTables.TOMBSTONE_BYTE;
+import static com.timdmeehan.trove.extras.SwissTables.getByteAtIndex;
+import static com.timdmeehan.trove.extras.SwissTables.getIndexOfZeroByte;
 import static org.junit.jupiter.api.Assertions.*;
 
-public class IntIntSwissMapTest {
+public class IntIntSwissMapTest extends IntIntMapContractTest<IntIntSwissMap> {
 
-    private static final int DEFAULT = 0XDEADBEEF;
+    @Override
+    IntIntSwissMap createMap(int expectedSize) {
+        return new IntIntSwissMap(expectedSize, 0.75, DEFAULT, DEFAULT);
+    }
+
+    @Override
+    int capacity(IntIntSwissMap map) {
+        return map.capacity();
+    }
+
+    @Override
+    void ensureCapacity(IntIntSwissMap map, int desiredCapacity) {
+        map.ensureCapacity(desiredCapacity);
+    }
+
+    @Override
+    void trimToSize(IntIntSwissMap map) {
+        map.trimToSize();
+    }
 
     @Test
     public void testPut() {
@@ -65,4 +98,868 @@ public class IntIntSwissMapTest {
             assertEquals(map.adjustOrPutValue(key, -4, value), value);
         }
     }
+
+    @Test
+    public void testRemoveThenReinsert() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(map.remove(i), i);
+        }
+        assertEquals(map.size(), 50);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(map.adjustOrPutValue(i, 1, -i), i % 2 == 0 ? -i : i + 1);
+        }
+        assertEquals(map.size(), 100);
+        assertEquals(map.keys().length, 100);
+    }
+
+    @Test
+    public void testRemoveLeavesTombstonesOnlyInFullGroups() {
+        // Every key hashes to the start of the group which its bit 3 selects, in a table of two groups
+        IntIntSwissMap map = new IntIntSwissMap(0, 0.875, DEFAULT, DEFAULT, key -> (long) key << 7);
+        assertEquals(map.capacity(), 16);
+        for (int i = 0; i < 7; i++) {
+            map.put(i, i);
+        }
+
+        // The first group still has an empty slot, so no probe can have passed through it
+        assertEquals(map.remove(3), 3);
+        assertEquals(map.deleted, 0);
+        assertEquals(map.filled, 6);
+
+        // Fill the first group, so that the next key overflows into the second
+        map.put(3, 3);
+        map.put(7, 7);
+        map.put(16, 16);
+        assertEquals(map.filled, 9);
+
+        // The probe for 16 passes through the full first group, so a removal there must leave a tombstone
+        assertEquals(map.remove(5), 5);
+        assertEquals(map.deleted, 1);
+        assertEquals(map.filled, 9);
+        assertEquals(map.get(16), 16);
+
+        // The second group has room, so 16 is emptied outright
+        assertEquals(map.remove(16), 16);
+        assertEquals(map.deleted, 1);
+        assertEquals(map.filled, 8);
+
+        // Reinserting into the first group reuses the tombstone
+        map.put(5, 5);
+        assertEquals(map.deleted, 0);
+        assertEquals(map.filled, 8);
+        assertEquals(map.size(), 8);
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        assertEquals(map.putIfAbsent(123, 456), DEFAULT);
+        assertEquals(map.get(123), 456);
+        // The present value is returned, and left in place
+        assertEquals(map.putIfAbsent(123, 789), 456);
+        assertEquals(map.get(123), 456);
+    }
+
+    @Test
+    public void testChurnLeavesTombstonesOnlyInFullGroups() {
+        IntIntSwissMap map = new IntIntSwissMap(40_000, 0.875, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 100_000; i++) {
+                int key = random.nextInt(80_000);
+                if (random.nextBoolean()) {
+                    map.put(key, i);
+                } else {
+                    map.remove(key);
+                }
+            }
+
+            // A group only gains a tombstone while it is full, and only a rebuild gives it back an empty slot
+            int tombstones = 0;
+            for (long metadata : map.metadatas) {
+                int inGroup = 0;
+                for (int i = 0; i < 8; i++) {
+                    if (getByteAtIndex(metadata, i) == TOMBSTONE_BYTE) {
+                        inGroup++;
+                    }
+                }
+                assertTrue(inGroup == 0 || getIndexOfZeroByte(metadata) > 7);
+                tombstones += inGroup;
+            }
+            assertEquals(map.deleted, tombstones);
+        }
+    }
+
+    @RepeatedTest(100)
+    public void testComputeAndMerge() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        Map<Integer, Integer> expected = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Removals leave tombstones for the inserts to reuse
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000);
+            int value = random.nextInt(100);
+            switch (random.nextInt(5)) {
+                case 0:
+                    assertEquals(map.compute(key, (k, v) -> k + v), expected.compute(key, (k, v) -> k + (v == null ? DEFAULT : v)).intValue());
+                    break;
+                case 1:
+                    assertEquals(map.computeIfAbsent(key, k -> k * 2), expected.computeIfAbsent(key, k -> k * 2).intValue());
+                    break;
+                case 2:
+                    assertEquals(map.merge(key, value, Integer::sum), expected.merge(key, value, Integer::sum).intValue());
+                    break;
+                case 3:
+                    assertEquals(map.getOrDefault(key, -1), expected.getOrDefault(key, -1).intValue());
+                    break;
+                default:
+                    Integer removed = expected.remove(key);
+                    assertEquals(map.remove(key), removed == null ? DEFAULT : removed);
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(map.get(entry.getKey()), entry.getValue().intValue());
+        }
+    }
+
+    @Test
+    public void testComputeOnPresentAndAbsentKeys() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        // A present value equal to the no entry value is still told apart from an absent key
+        map.put(1, DEFAULT);
+        assertEquals(map.getOrDefault(1, 7), DEFAULT);
+        assertEquals(map.getOrDefault(2, 7), 7);
+
+        assertEquals(map.computeIfAbsent(1, key -> fail()), DEFAULT);
+        assertEquals(map.computeIfAbsent(2, key -> 20), 20);
+        assertEquals(map.compute(3, (key, value) -> {
+            assertEquals(value, DEFAULT);
+            return 30;
+        }), 30);
+        assertEquals(map.compute(3, (key, value) -> value + key), 33);
+        assertEquals(map.merge(4, 1, (current, value) -> fail()), 1);
+        assertEquals(map.merge(4, 1, Integer::sum), 2);
+        assertEquals(map.size(), 4);
+
+        // Grows the table while inserting through each of them
+        for (int i = 10; i < 10_000; i++) {
+            map.merge(i, 1, Integer::sum);
+            map.merge(i, 1, Integer::sum);
+            map.compute(-i, (key, value) -> key);
+            map.computeIfAbsent(i + 100_000, key -> -key);
+        }
+        for (int i = 10; i < 10_000; i++) {
+            assertEquals(map.get(i), 2);
+            assertEquals(map.get(-i), -i);
+            assertEquals(map.get(i + 100_000), -i - 100_000);
+        }
+
+        assertThrows(ConcurrentModificationException.class, () -> map.computeIfAbsent(5, key -> map.put(6, 6)));
+        assertThrows(ConcurrentModificationException.class, () -> map.compute(3, (key, value) -> map.remove(2)));
+        assertThrows(ConcurrentModificationException.class, () -> map.merge(4, 1, (current, value) -> map.put(7, 7)));
+    }
+
+    @RepeatedTest(10)
+    public void testNearlyFull() {
+        // With a load factor this high the probe must reach every group of the table to find the last empty slots
+        IntIntSwissMap map = new IntIntSwissMap(0.99, DEFAULT, DEFAULT);
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(4) != 0) {
+                assertEquals(map.put(key, i), expected.put(key, i));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+        }
+        for (int key = 0; key < 5_000; key++) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+    }
+
+    @Test
+    public void testProbeLength() {
+        IntIntSwissMap map = new IntIntSwissMap(1 << 16, 0.875, DEFAULT, DEFAULT);
+        int capacity = map.capacity();
+        int size = (int) (capacity * 0.875) - 1;
+        for (int i = 0; i < size; i++) {
+            map.put(i * 2, i);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        long hits = 0;
+        long misses = 0;
+        for (int i = 0; i < size; i++) {
+            int hit = map.getProbeLength(i * 2);
+            int miss = map.getProbeLength(i * 2 + 1);
+            assertTrue(hit >= 1);
+            assertTrue(miss >= 1);
+            hits += hit;
+            misses += miss;
+        }
+        // Linear probing over groups averages around 4.5 groups per miss at this load, triangular probing around 3
+        assertTrue(hits < size * 1.5, "average hit probe length " + (double) hits / size);
+        assertTrue(misses < size * 3.5, "average miss probe length " + (double) misses / size);
+    }
+
+    @RepeatedTest(10)
+    public void testSeededHashing() {
+        IntIntSwissMap map = new IntIntSwissMap(0, 0.875, DEFAULT, DEFAULT, IntHashingStrategy.randomlySeeded());
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(map.put(key, i), expected.put(key, i));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+        }
+        for (int key = 0; key < 2_000; key++) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+        int[] keys = expected.keys();
+        int[] values = new int[keys.length];
+        map.getAll(keys, 0, keys.length, values);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(values[i], expected.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void testHashFlooding() {
+        // Keys whose default hashes agree in H2 and in every bit of H1 which a table of up to 16K slots uses
+        int[] keys = new int[500];
+        long collision = IntHashingStrategy.DEFAULT.hash(0) & 0x1FFC7F;
+        for (int i = 0, key = 0; i < keys.length; key++) {
+            if ((IntHashingStrategy.DEFAULT.hash(key) & 0x1FFC7F) == collision) {
+                keys[i++] = key;
+            }
+        }
+
+        IntIntSwissMap flooded = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        IntIntSwissMap seeded = new IntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, IntHashingStrategy.randomlySeeded());
+        for (int key : keys) {
+            flooded.put(key, key);
+            seeded.put(key, key);
+        }
+        long floodedLength = 0;
+        long seededLength = 0;
+        for (int key : keys) {
+            assertEquals(flooded.get(key), key);
+            assertEquals(seeded.get(key), key);
+            floodedLength += flooded.getProbeLength(key);
+            seededLength += seeded.getProbeLength(key);
+        }
+        assertTrue(floodedLength > keys.length * 10L, "flooded probe length " + floodedLength);
+        assertTrue(seededLength < keys.length * 2L, "seeded probe length " + seededLength);
+    }
+
+    @Test
+    public void testConstantHash() {
+        // Every key collides, so every lookup walks the whole probe sequence, but the map must still be correct
+        IntIntSwissMap map = new IntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, key -> 0);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(map.put(i, -i), DEFAULT);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            assertEquals(map.remove(i), -i);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(map.get(i), i % 2 == 0 ? DEFAULT : -i);
+        }
+        assertThrows(NullPointerException.class, () -> new IntIntSwissMap(0, 0.75, DEFAULT, DEFAULT, null));
+    }
+
+    @Test
+    public void testParallelRehash() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            IntIntSwissMap map = new IntIntSwissMap(0.875, DEFAULT, DEFAULT);
+            map.setRehashPool(pool);
+            assertSame(map.getRehashPool(), pool);
+            TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            // Grows through several parallel rehashes, with removals leaving tombstones behind in the old tables
+            for (int i = 0; i < 1_000_000; i++) {
+                int key = random.nextInt();
+                assertEquals(map.put(key, i), expected.put(key, i));
+                if (i % 4 == 0) {
+                    key = random.nextInt(i + 1);
+                    assertEquals(map.remove(key), expected.remove(key));
+                }
+            }
+            assertEquals(map.size(), expected.size());
+            assertTrue(expected.forEachEntry((key, value) -> map.get(key) == value));
+            for (int i = 0; i < 100_000; i++) {
+                int key = random.nextInt();
+                assertEquals(map.containsKey(key), expected.containsKey(key));
+            }
+
+            // Every key starts its probe in the same group, so none of them can be placed by the tasks
+            IntIntSwissMap colliding = new IntIntSwissMap(1 << 16, 0.75, DEFAULT, DEFAULT, key -> 0);
+            colliding.setRehashPool(pool);
+            for (int i = 0; i < 1_000; i++) {
+                colliding.put(i, i);
+            }
+            colliding.ensureCapacity(1 << 17);
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals(colliding.get(i), i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @RepeatedTest(10)
+    public void testParallelBulkOperations() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+            TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            // Large enough to be split into many tasks
+            for (int i = 0; i < 300_000; i++) {
+                int key = random.nextInt(1_000_000);
+                map.put(key, i);
+                expected.put(key, i);
+            }
+
+            LongAdder sum = new LongAdder();
+            assertTrue(map.parallelForEachEntry((key, value) -> {
+                sum.add(key);
+                return value == expected.get(key);
+            }, pool));
+            assertEquals(sum.sum(), Arrays.stream(expected.keys()).asLongStream().sum());
+            AtomicInteger calls = new AtomicInteger();
+            assertFalse(map.parallelForEachEntry((key, value) -> calls.incrementAndGet() < 10, pool));
+            assertTrue(calls.get() < expected.size());
+
+            map.parallelTransformValues(value -> value * 3, pool);
+            expected.transformValues(value -> value * 3);
+            assertTrue(expected.forEachEntry((key, value) -> map.get(key) == value));
+
+            // Removes most entries, leaving both emptied slots and tombstones which must be counted
+            assertTrue(map.parallelRetainEntries((key, value) -> key % 5 == 0, pool));
+            assertTrue(expected.retainEntries((key, value) -> key % 5 == 0));
+            assertFalse(map.parallelRetainEntries((key, value) -> true, pool));
+            assertEquals(map.size(), expected.size());
+            assertTrue(expected.forEachEntry((key, value) -> map.get(key) == value));
+            for (int i = 0; i < 300_000; i++) {
+                int key = random.nextInt(1_000_000);
+                assertEquals(map.put(key, i), expected.put(key, i));
+                key = random.nextInt(1_000_000);
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+            assertTrue(expected.forEachEntry((key, value) -> map.get(key) == value));
+
+            // The entries removed before the procedure threw are still counted
+            int size = map.size();
+            AtomicInteger removed = new AtomicInteger();
+            assertThrows(IllegalStateException.class, () -> map.parallelRetainEntries((key, value) -> {
+                if (key % 7 == 0) {
+                    throw new IllegalStateException();
+                }
+                if (key % 2 == 0) {
+                    removed.incrementAndGet();
+                    return false;
+                }
+                return true;
+            }, pool));
+            assertEquals(map.size(), size - removed.get());
+            assertEquals(map.keys().length, map.size());
+
+            // A small table is scanned on the calling thread
+            IntIntSwissMap small = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+            small.put(1, 1);
+            small.put(2, 2);
+            assertTrue(small.parallelRetainEntries((key, value) -> key == 1, pool));
+            small.parallelTransformValues(value -> -value, pool);
+            assertEquals(small.size(), 1);
+            assertEquals(small.get(1), -1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPresized() {
+        IntIntSwissMap map = new IntIntSwissMap(100_000, 0.75, DEFAULT, DEFAULT);
+        int capacity = map.capacity();
+        assertTrue(capacity * 0.75 > 100_000);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.put(i, i), DEFAULT);
+        }
+        assertEquals(map.capacity(), capacity);
+        assertEquals(map.size(), 100_000);
+
+        map.clear();
+        assertEquals(map.capacity(), capacity);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testEnsureCapacity() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        map.ensureCapacity(50_000);
+        int capacity = map.capacity();
+        for (int i = 10; i < 50_010; i++) {
+            assertEquals(map.put(i, i), DEFAULT);
+        }
+        assertEquals(map.capacity(), capacity);
+        for (int i = 0; i < 50_010; i++) {
+            assertEquals(map.get(i), i);
+        }
+
+        // Already large enough, so nothing to do
+        map.ensureCapacity(1);
+        assertEquals(map.capacity(), capacity);
+    }
+
+    @Test
+    public void testPutAllPresizes() {
+        Map<Integer, Integer> source = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            source.put(i, -i);
+        }
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        map.putAll(source);
+        assertEquals(map.size(), 10_000);
+        assertEquals(map.capacity(), new IntIntSwissMap(10_000, 0.75, DEFAULT, DEFAULT).capacity());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(map.get(i), -i);
+        }
+    }
+
+    @Test
+    public void testPutAllFromSwissMap() {
+        IntIntSwissMap source = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        for (int i = 0; i < 10_000; i++) {
+            source.put(i, -i);
+        }
+        // Leave some tombstones behind in the source
+        for (int i = 0; i < 10_000; i += 3) {
+            source.remove(i);
+        }
+
+        // Same capacity, copied wholesale
+        IntIntSwissMap sameCapacity = new IntIntSwissMap(source.size(), 0.75, DEFAULT, DEFAULT);
+        sameCapacity.putAll(source);
+        assertPutAllFromSwissMap(source, sameCapacity);
+
+        // Smaller capacity, entries placed without comparisons
+        IntIntSwissMap smaller = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        smaller.putAll((TIntIntMap) source);
+        assertPutAllFromSwissMap(source, smaller);
+
+        // Larger capacity, entries placed without comparisons
+        IntIntSwissMap larger = new IntIntSwissMap(100_000, 0.75, DEFAULT, DEFAULT);
+        larger.putAll(source);
+        assertPutAllFromSwissMap(source, larger);
+
+        // Higher load factor in the source than the destination
+        IntIntSwissMap lowerLoadFactor = new IntIntSwissMap(0.5, DEFAULT, DEFAULT);
+        lowerLoadFactor.putAll(source);
+        assertPutAllFromSwissMap(source, lowerLoadFactor);
+
+        // Different hashing strategies, so each key byte must be recomputed
+        IntIntSwissMap seeded = new IntIntSwissMap(source.size(), 0.75, DEFAULT, DEFAULT, IntHashingStrategy.seeded(1));
+        seeded.putAll(source);
+        assertPutAllFromSwissMap(source, seeded);
+        IntIntSwissMap unseeded = new IntIntSwissMap(seeded.size(), 0.75, DEFAULT, DEFAULT);
+        unseeded.putAll(seeded);
+        assertEquals(unseeded.size(), seeded.size());
+        assertTrue(seeded.forEachEntry((key, value) -> unseeded.get(key) == value));
+
+        // Overlapping keys
+        IntIntSwissMap overlapping = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        for (int i = 5_000; i < 15_000; i++) {
+            overlapping.put(i, i);
+        }
+        overlapping.putAll(source);
+        for (int i = 0; i < 15_000; i++) {
+            int expected = i < 10_000 && i % 3 != 0 ? -i : (i >= 5_000 ? i : DEFAULT);
+            assertEquals(overlapping.get(i), expected);
+        }
+    }
+
+    private static void assertPutAllFromSwissMap(IntIntSwissMap source, IntIntSwissMap destination) {
+        assertEquals(destination.size(), source.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(destination.get(i), i % 3 == 0 ? DEFAULT : -i);
+        }
+        // Still usable after the copy
+        for (int i = 10_000; i < 20_000; i++) {
+            assertEquals(destination.put(i, i), DEFAULT);
+        }
+        assertEquals(destination.size(), source.size() + 10_000);
+    }
+
+    @Test
+    public void testTrimToSize() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, i);
+        }
+        int capacity = map.capacity();
+        for (int i = 100; i < 100_000; i++) {
+            map.remove(i);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        map.trimToSize();
+        assertEquals(map.capacity(), new IntIntSwissMap(100, 0.75, DEFAULT, DEFAULT).capacity());
+        assertEquals(map.size(), 100);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.get(i), i < 100 ? i : DEFAULT);
+        }
+
+        map.clear();
+        map.trimToSize();
+        assertEquals(map.capacity(), 16);
+    }
+
+    @Test
+    public void testAutoShrink() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        assertFalse(map.isAutoShrink());
+        map.setAutoShrink(true);
+        assertTrue(map.isAutoShrink());
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, i);
+        }
+        int capacity = map.capacity();
+
+        // A few removals must not shrink the table
+        for (int i = 0; i < 1_000; i++) {
+            map.remove(i);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        assertTrue(map.retainEntries((key, value) -> key >= 99_000));
+        assertTrue(map.capacity() < capacity);
+        assertEquals(map.size(), 1_000);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.get(i), i >= 99_000 ? i : DEFAULT);
+        }
+
+        // Hysteresis: removing and re-adding one entry around the boundary must not resize the table
+        capacity = map.capacity();
+        for (int i = 0; i < 1_000; i++) {
+            map.remove(99_000);
+            map.put(99_000, 99_000);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        // Never shrinks below the size it was created with
+        IntIntSwissMap presized = new IntIntSwissMap(10_000, 0.75, DEFAULT, DEFAULT);
+        presized.setAutoShrink(true);
+        capacity = presized.capacity();
+        for (int i = 0; i < 10_000; i++) {
+            presized.put(i, i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            presized.remove(i);
+        }
+        assertEquals(presized.capacity(), capacity);
+    }
+
+    @Test
+    public void testCursorReset() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        for (int i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        IntIntSwissMap.Cursor cursor = map.cursor();
+        for (int pass = 0; pass < 3; pass++) {
+            long sum = 0;
+            cursor.reset();
+            while (cursor.hasNext()) {
+                cursor.advance();
+                sum += cursor.value();
+            }
+            assertEquals(sum, 999 * 1_000 / 2);
+        }
+
+        map.remove(0);
+        assertTrue(cursor.reset().hasNext());
+    }
+
+    @Test
+    public void testKeySet() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        TIntSet keySet = map.keySet();
+        assertTrue(keySet.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, -i);
+        }
+
+        // The view is live
+        assertEquals(keySet.size(), 100);
+        assertTrue(keySet.contains(50));
+        assertFalse(keySet.contains(-50));
+        assertTrue(keySet.containsAll(new int[] {0, 1, 99}));
+        assertFalse(keySet.containsAll(Arrays.asList(0, 100)));
+        // Only Integers are int keys, even when another Number would truncate to a present key
+        assertFalse(keySet.containsAll(Collections.singletonList((1L << 32) | 1)));
+        assertFalse(keySet.containsAll(Collections.singletonList(1.5)));
+        assertEquals(keySet, new TIntHashSet(map.keys()));
+        assertEquals(keySet.hashCode(), new TIntHashSet(map.keys()).hashCode());
+        assertThrows(UnsupportedOperationException.class, () -> keySet.add(100));
+
+        int[] array = new int[101];
+        assertEquals(keySet.toArray(array)[100], DEFAULT);
+
+        TIntIterator iterator = keySet.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            int key = iterator.next();
+            assertEquals(map.get(key), -key);
+            count++;
+        }
+        assertEquals(count, 100);
+
+        // Removals go through to the map
+        assertTrue(keySet.remove(0));
+        assertFalse(keySet.remove(0));
+        assertFalse(map.containsKey(0));
+        assertTrue(keySet.removeAll(new int[] {1, 2, 3}));
+        assertTrue(keySet.retainAll(new TIntHashSet(new int[] {10, 11, 12, 200})));
+        assertEquals(map.size(), 3);
+        assertEquals(new TIntHashSet(map.keys()), new TIntHashSet(new int[] {10, 11, 12}));
+        assertTrue(keySet.retainAll(Arrays.asList(10, 11)));
+        assertEquals(map.size(), 2);
+
+        keySet.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testValueCollection() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        TIntCollection values = map.valueCollection();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i % 10);
+        }
+        assertEquals(values.size(), 100);
+        assertTrue(values.contains(9));
+        assertFalse(values.contains(10));
+        assertTrue(values.containsAll(Arrays.asList(0, 9)));
+        assertFalse(values.containsAll(Collections.singletonList(9L)));
+        assertFalse(values.containsAll(Collections.singletonList(9.0)));
+        assertEquals(values.toArray().length, 100);
+
+        long[] sum = {0};
+        assertTrue(values.forEach(value -> {
+            sum[0] += value;
+            return true;
+        }));
+        assertEquals(sum[0], 450);
+
+        // Removes a single entry with the value
+        assertTrue(values.remove(9));
+        assertEquals(map.size(), 99);
+        assertTrue(values.contains(9));
+
+        assertTrue(values.removeAll(new int[] {9}));
+        assertFalse(values.contains(9));
+        assertTrue(values.retainAll(new int[] {0}));
+        assertEquals(map.size(), 10);
+        assertEquals(values.toString(), "{0, 0, 0, 0, 0, 0, 0, 0, 0, 0}");
+    }
+
+    @RepeatedTest(10)
+    public void testStreams() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(200_000);
+            map.put(key, i);
+            expected.put(key, i);
+            // Tombstones must be skipped
+            if (i % 3 == 0) {
+                assertEquals(map.remove(key - 1), expected.remove(key - 1));
+            }
+        }
+
+        for (boolean parallel : new boolean[] {false, true}) {
+            int[] keys = parallel ? map.keyStream().parallel().sorted().toArray() : map.keyStream().sorted().toArray();
+            int[] expectedKeys = expected.keys();
+            Arrays.sort(expectedKeys);
+            assertArrayEquals(keys, expectedKeys);
+
+            int[] values = parallel ? map.valueStream().parallel().sorted().toArray() : map.valueStream().sorted().toArray();
+            int[] expectedValues = expected.values();
+            Arrays.sort(expectedValues);
+            assertArrayEquals(values, expectedValues);
+
+            long[] entries = parallel ? map.entryStream().parallel().toArray() : map.entryStream().toArray();
+            assertEquals(entries.length, expected.size());
+            for (long entry : entries) {
+                assertEquals(IntIntSwissMap.getEntryValue(entry), expected.get(IntIntSwissMap.getEntryKey(entry)));
+            }
+        }
+        assertEquals(map.keyStream().count(), expected.size());
+        assertEquals(map.keyStream().parallel().asLongStream().sum(), Arrays.stream(expected.keys()).asLongStream().sum());
+    }
+
+    @Test
+    public void testSpliterator() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        assertEquals(map.keyStream().count(), 0);
+        assertEquals(map.entryStream().parallel().count(), 0);
+        for (int i = -500; i < 500; i++) {
+            map.put(i, -i);
+        }
+
+        Spliterator.OfInt spliterator = map.keyStream().spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+        assertEquals(spliterator.getExactSizeIfKnown(), 1_000);
+
+        // Splitting all the way down to single groups covers every key exactly once
+        List<Spliterator.OfInt> splits = new ArrayList<>();
+        splits.add(spliterator);
+        for (int i = 0; i < splits.size(); i++) {
+            Spliterator.OfInt split;
+            while ((split = splits.get(i).trySplit()) != null) {
+                assertFalse(split.hasCharacteristics(Spliterator.SIZED));
+                splits.add(split);
+            }
+        }
+        assertEquals(splits.size(), map.capacity() / 8);
+        TIntSet keys = new TIntHashSet();
+        for (Spliterator.OfInt split : splits) {
+            split.forEachRemaining((int key) -> assertTrue(keys.add(key)));
+        }
+        assertEquals(keys, map.keySet());
+
+        // A partly consumed spliterator splits only what it has left
+        Spliterator.OfLong entries = map.entryStream().spliterator();
+        long[] first = new long[1];
+        assertTrue(entries.tryAdvance((long entry) -> first[0] = entry));
+        Spliterator.OfLong rest = entries.trySplit();
+        long[] count = new long[1];
+        rest.forEachRemaining((long entry) -> {
+            assertNotEquals(entry, first[0]);
+            count[0]++;
+        });
+        entries.forEachRemaining((long entry) -> {
+            assertNotEquals(entry, first[0]);
+            count[0]++;
+        });
+        assertEquals(count[0], 999);
+
+        assertThrows(ConcurrentModificationException.class, () -> map.keyStream().forEach(key -> map.remove(0)));
+        assertThrows(ConcurrentModificationException.class, () -> map.valueStream().forEach(value -> map.put(value + 1_000, 0)));
+    }
+
+    @RepeatedTest(10)
+    public void testBatchLookups() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(random.nextInt(20_000), i);
+        }
+
+        int[] keys = new int[1_003];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(20_000);
+        }
+        int[] values = new int[keys.length];
+        boolean[] present = new boolean[keys.length];
+        map.getAll(keys, 3, 1_000, values);
+        map.containsKeys(keys, 3, 1_000, present);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(values[i], 0);
+            assertFalse(present[i]);
+        }
+        for (int i = 3; i < keys.length; i++) {
+            assertEquals(values[i], map.get(keys[i]));
+            assertEquals(present[i], map.containsKey(keys[i]));
+        }
+
+        int[] presentKeys = map.keys();
+        assertTrue(map.containsAllKeys(presentKeys, 0, presentKeys.length));
+        int[] withAbsentKey = Arrays.copyOf(presentKeys, presentKeys.length + 1);
+        withAbsentKey[presentKeys.length] = 20_000;
+        assertFalse(map.containsAllKeys(withAbsentKey, 0, withAbsentKey.length));
+        assertTrue(map.containsAllKeys(withAbsentKey, 0, presentKeys.length));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> map.getAll(keys, 4, 1_000, values));
+        assertThrows(IndexOutOfBoundsException.class, () -> map.getAll(keys, 0, 1_000, new int[10]));
+        assertThrows(IndexOutOfBoundsException.class, () -> map.containsAllKeys(keys, -1, 1));
+    }
+
+    @RepeatedTest(10)
+    public void testBatchUpdates() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        TIntIntMap expected = new TIntIntHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int[] keys = new int[10_005];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            // Plenty of duplicates within the batch
+            keys[i] = random.nextInt(5_000);
+            values[i] = random.nextInt();
+        }
+        map.putAll(keys, values, 5, 10_000);
+        for (int i = 5; i < keys.length; i++) {
+            expected.put(keys[i], values[i]);
+        }
+        assertEquals(map.size(), expected.size());
+        for (int key : expected.keys()) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(10_000);
+        }
+        map.adjustOrPutValues(keys, values, 1);
+        for (int i = 0; i < keys.length; i++) {
+            expected.adjustOrPutValue(keys[i], values[i], 1);
+        }
+        assertEquals(map.size(), expected.size());
+        for (int key : expected.keys()) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+
+        assertThrows(IndexOutOfBoundsException.class, () -> map.putAll(keys, new int[1], 0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> map.adjustOrPutValues(keys, new int[1], 1));
+    }
+
+    @Test
+    public void testBatchUpdatesOfFewKeys() {
+        IntIntSwissMap map = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        IntIntSwissMap expected = new IntIntSwissMap(0.75, DEFAULT, DEFAULT);
+        int[] keys = new int[100_000];
+        int[] deltas = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i % 100;
+            deltas[i] = 1;
+            expected.adjustOrPutValue(keys[i], 1, 0);
+        }
+
+        // The table is sized for the distinct keys, not for the rows of the batch
+        map.adjustOrPutValues(keys, deltas, 0);
+        assertEquals(map.size(), 100);
+        assertEquals(map.capacity(), expected.capacity());
+        map.putAll(keys, deltas, 0, keys.length);
+        assertEquals(map.capacity(), expected.capacity());
+        for (int key = 0; key < 100; key++) {
+            assertEquals(map.get(key), 1);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntLongIterator;
+import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntLongSwissMapTest {
+
+    private static final int DEFAULT_KEY = 0XDEADBEEF;
+    private static final long DEFAULT = 0XDEADBEEFCAFEL;
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        IntLongSwissMap map = new IntLongSwissMap(0.75, DEFAULT_KEY, DEFAULT);
+        TIntLongMap expected = new TIntLongHashMap(16, 0.5f, DEFAULT_KEY, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A small key space forces frequent removals, tombstones and compactions
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            long value = random.nextLong();
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(map.put(key, value), expected.put(key, value));
+                    break;
+                case 2:
+                    assertEquals(map.adjustOrPutValue(key, value, -1), expected.adjustOrPutValue(key, value, -1));
+                    break;
+                default:
+                    assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (int key = -1_000; key < 1_000; key++) {
+            assertEquals(map.get(key), expected.get(key));
+            assertEquals(map.containsKey(key), expected.containsKey(key));
+        }
+        assertEquals(new TIntHashSet(map.keys()), expected.keySet());
+        assertEquals(map.keySet(), expected.keySet());
+        assertEquals(new TLongHashSet(map.values()), new TLongHashSet(expected.values()));
+    }
+
+    @RepeatedTest(10)
+    public void testSeededHashing() {
+        IntLongSwissMap map = new IntLongSwissMap(0, 0.875, DEFAULT_KEY, DEFAULT, IntHashingStrategy.randomlySeeded());
+        TIntLongMap expected = new TIntLongHashMap(16, 0.5f, DEFAULT_KEY, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(map.put(key, i), expected.put(key, i));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+        }
+        for (int key = 0; key < 2_000; key++) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+        assertThrows(NullPointerException.class, () -> new IntLongSwissMap(0, 0.75, DEFAULT_KEY, DEFAULT, null));
+    }
+
+    @Test
+    public void testViews() {
+        IntLongSwissMap map = new IntLongSwissMap(100, 0.75, DEFAULT_KEY, DEFAULT);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i * (1L << 33));
+        }
+        assertEquals(map.keySet().getNoEntryValue(), DEFAULT_KEY);
+        assertEquals(map.valueCollection().getNoEntryValue(), DEFAULT);
+        assertTrue(map.valueCollection().contains(99 * (1L << 33)));
+        // Only the high half of the value differs, which must not be truncated
+        assertFalse(map.valueCollection().contains(99));
+
+        assertTrue(map.keySet().removeAll(new int[] {0, 1, 2}));
+        assertTrue(map.valueCollection().retainAll(new long[] {3 * (1L << 33), 4 * (1L << 33)}));
+        assertEquals(map.size(), 2);
+
+        TIntLongIterator iterator = map.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            iterator.setValue(iterator.key());
+        }
+        assertEquals(map.get(3), 3);
+        assertEquals(map.get(4), 4);
+    }
+}
@@ -0,0 +1,198 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntSwissSetTest {
+
+    private static final int DEFAULT = 0XDEADBEEF;
+
+    @Test
+    public void testAddAndRemove() {
+        IntSwissSet set = new IntSwissSet(0.75, DEFAULT);
+        assertEquals(set.getNoEntryValue(), DEFAULT);
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(1));
+        assertFalse(set.add(1));
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertFalse(set.contains(2));
+        assertEquals(set.size(), 3);
+
+        assertTrue(set.remove(1));
+        assertFalse(set.remove(1));
+        assertFalse(set.contains(1));
+        assertEquals(set.size(), 2);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(Integer.MAX_VALUE));
+    }
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        IntSwissSet set = new IntSwissSet(0.75, DEFAULT);
+        TIntSet expected = new TIntHashSet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A small key space forces frequent removals, tombstones and compactions
+        for (int i = 0; i < 50_000; i++) {
+            int element = (random.nextInt(2_000) - 1_000) * 1_000_003;
+            if (random.nextBoolean()) {
+                assertEquals(set.add(element), expected.add(element));
+            } else {
+                assertEquals(set.remove(element), expected.remove(element));
+            }
+            assertEquals(set.size(), expected.size());
+        }
+        for (int element = -1_000; element < 1_000; element++) {
+            assertEquals(set.contains(element * 1_000_003), expected.contains(element * 1_000_003));
+        }
+        assertEquals(set, expected);
+        assertEquals(expected, set);
+        assertEquals(set.hashCode(), expected.hashCode());
+    }
+
+    @Test
+    public void testSparseElements() {
+        IntSwissSet set = new IntSwissSet(0.875, DEFAULT);
+        TIntSet expected = new TIntHashSet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 100_000; i++) {
+            int element = random.nextInt();
+            assertEquals(set.add(element), expected.add(element));
+        }
+        assertEquals(set.size(), expected.size());
+        assertTrue(expected.forEach(set::contains));
+        assertTrue(set.forEach(expected::contains));
+        assertTrue(set.capacity() <= 256 * 1024);
+    }
+
+    @Test
+    public void testChurnReusesTombstones() {
+        IntSwissSet set = new IntSwissSet(0.75, DEFAULT);
+        for (int i = 0; i < 1_000; i++) {
+            set.add(i);
+        }
+        // The table may grow once while the first tombstones accumulate, but must never grow beyond that
+        int maxCapacity = set.capacity() * 2;
+
+        for (int i = 1_000; i < 500_000; i++) {
+            assertTrue(set.remove(i - 1_000));
+            assertTrue(set.add(i));
+            assertEquals(set.size(), 1_000);
+            assertTrue(set.capacity() <= maxCapacity);
+        }
+        for (int i = 499_000; i < 500_000; i++) {
+            assertTrue(set.contains(i));
+        }
+    }
+
+    @Test
+    public void testPresized() {
+        IntSwissSet set = new IntSwissSet(10_000, 0.75, DEFAULT);
+        int capacity = set.capacity();
+        int[] elements = new int[10_000];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = i;
+        }
+        assertTrue(set.addAll(elements));
+        assertEquals(set.capacity(), capacity);
+        assertFalse(set.addAll(elements));
+
+        set.ensureCapacity(10_000);
+        capacity = set.capacity();
+        assertTrue(set.addAll(Arrays.asList(10_000, 10_001, 10_002)));
+        assertTrue(set.addAll(new TIntArrayList(new int[] {10_002, 10_003})));
+        assertFalse(set.addAll(new TIntArrayList(new int[] {10_002, 10_003})));
+        assertEquals(set.capacity(), capacity);
+        assertEquals(set.size(), 10_004);
+
+        assertTrue(set.retainAll(new TIntArrayList(new int[] {1, 2, 3, 10_003, -1})));
+        set.trimToSize();
+        assertEquals(set.capacity(), 16);
+        assertEquals(set, new TIntHashSet(new int[] {1, 2, 3, 10_003}));
+        assertThrows(IllegalArgumentException.class, () -> new IntSwissSet(-1, 0.75, DEFAULT));
+    }
+
+    @Test
+    public void testBulkOperations() {
+        IntSwissSet set = new IntSwissSet(0.75, DEFAULT);
+        for (int i = 0; i < 100; i++) {
+            set.add(i);
+        }
+        assertTrue(set.containsAll(new int[] {0, 50, 99}));
+        assertFalse(set.containsAll(new int[] {0, 100}));
+        assertTrue(set.containsAll(Arrays.asList(1, 2, 3)));
+        // Only Integers are int elements, even when another Number would truncate to a present element
+        assertFalse(set.containsAll(Arrays.asList((1L << 32) | 1)));
+        assertFalse(set.containsAll(Arrays.asList(1.5)));
+        assertTrue(set.containsAll(new TIntArrayList(new int[] {4, 5})));
+
+        assertTrue(set.removeAll(new int[] {0, 1, 2}));
+        assertFalse(set.removeAll(new int[] {0, 1, 2}));
+        assertTrue(set.removeAll(Arrays.asList(3, 4)));
+        assertTrue(set.retainAll(Arrays.asList(5, 6, 7, 8)));
+        assertEquals(set.size(), 4);
+        assertTrue(set.retainAll(new int[] {5, 6, 7}));
+        assertFalse(set.retainAll(set));
+        assertEquals(set.toString().length(), "{5, 6, 7}".length());
+
+        int[] array = set.toArray();
+        Arrays.sort(array);
+        assertArrayEquals(array, new int[] {5, 6, 7});
+        assertEquals(set.toArray(new int[4])[3], DEFAULT);
+        assertFalse(set.forEach(element -> element < 6));
+
+        assertTrue(set.removeAll(set));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testIterator() {
+        IntSwissSet set = new IntSwissSet(0.75, DEFAULT);
+        assertFalse(set.iterator().hasNext());
+        TIntSet expected = new TIntHashSet();
+        for (int i = 0; i < 10_000; i++) {
+            int element = ThreadLocalRandom.current().nextInt();
+            set.add(element);
+            expected.add(element);
+        }
+
+        TIntSet seen = new TIntHashSet();
+        TIntIterator iterator = set.iterator();
+        while (iterator.hasNext()) {
+            assertTrue(seen.add(iterator.next()));
+        }
+        assertEquals(seen, expected);
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        // Remove every other element through the iterator
+        iterator = set.iterator();
+        while (iterator.hasNext()) {
+            int element = iterator.next();
+            if ((element & 1) == 0) {
+                expected.remove(element);
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+        }
+        assertEquals(set, expected);
+
+        TIntIterator stale = set.iterator();
+        set.add(2);
+        assertThrows(ConcurrentModificationException.class, stale::next);
+    }
+}
@@ -0,0 +1,65 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntSwissMapTest {
+
+    private static final long DEFAULT_KEY = 0XDEADBEEFCAFEL;
+    private static final int DEFAULT = 0XDEADBEEF;
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        LongIntSwissMap map = new LongIntSwissMap(0.75, DEFAULT_KEY, DEFAULT);
+        TLongIntMap expected = new TLongIntHashMap(16, 0.5f, DEFAULT_KEY, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // User ids spread over the whole long range, drawn from a small set so that they churn
+        long[] keys = new long[2_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        for (int i = 0; i < 50_000; i++) {
+            long key = keys[random.nextInt(keys.length)];
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(map.put(key, i), expected.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(map.increment(key), expected.increment(key));
+                    break;
+                case 2:
+                    assertEquals(map.adjustOrPutValue(key, 1, 1), expected.adjustOrPutValue(key, 1, 1));
+                    break;
+                default:
+                    assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (long key : keys) {
+            assertEquals(map.get(key), expected.get(key));
+        }
+        assertEquals(new TLongHashSet(map.keys()), expected.keySet());
+    }
+
+    @Test
+    public void testGrowth() {
+        LongIntSwissMap map = new LongIntSwissMap(0.875, DEFAULT_KEY, DEFAULT);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.put(i * 0x9E3779B97F4A7C15L, i), DEFAULT);
+        }
+        assertEquals(map.size(), 100_000);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(map.get(i * 0x9E3779B97F4A7C15L), i);
+        }
+        assertEquals(map.get(-1), DEFAULT);
+        assertEquals(map.valueCollection().size(), 100_000);
+    }
+}
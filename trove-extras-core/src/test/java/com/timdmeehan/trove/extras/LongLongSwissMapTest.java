@@ -0,0 +1,284 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.TLongCollection;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.iterator.TLongLongIterator;
+import gnu.trove.map.TLongLongMap;
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongSwissMapTest {
+
+    private static final long DEFAULT = 0XDEADBEEFCAFEL;
+
+    @Test
+    public void testPut() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        assertEquals(map.getNoEntryKey(), DEFAULT);
+        assertEquals(map.getNoEntryValue(), DEFAULT);
+        assertEquals(map.put(123, 456), DEFAULT);
+        assertEquals(map.get(123), 456);
+        assertEquals(map.put(123, 789), 456);
+        assertEquals(map.putIfAbsent(123, 1), 789);
+        assertEquals(map.putIfAbsent(124, 1), DEFAULT);
+        assertEquals(map.get(124), 1);
+
+        // Keys which only differ in their high half are distinct
+        assertEquals(map.put(1L << 40, 1), DEFAULT);
+        assertEquals(map.put(1L << 41, 2), DEFAULT);
+        assertEquals(map.get(1L << 40), 1);
+        assertEquals(map.get(1L << 41), 2);
+        assertEquals(map.get(0), DEFAULT);
+
+        assertTrue(map.increment(123));
+        assertFalse(map.increment(125));
+        assertTrue(map.adjustValue(123, Long.MAX_VALUE));
+        assertEquals(map.get(123), 790 + Long.MAX_VALUE);
+        assertEquals(map.adjustOrPutValue(125, 1, 10), 10);
+        assertEquals(map.adjustOrPutValue(125, 1, 10), 11);
+        assertEquals(map.size(), 5);
+        assertEquals(map.remove(125), 11);
+        assertEquals(map.remove(125), DEFAULT);
+        assertEquals(map.size(), 4);
+    }
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        TLongLongMap expected = new TLongLongHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A small key space forces frequent removals, tombstones and compactions
+        for (int i = 0; i < 50_000; i++) {
+            long key = (random.nextInt(2_000) - 1_000L) << 32;
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(map.put(key, -i), expected.put(key, -i));
+                    break;
+                case 2:
+                    assertEquals(map.adjustOrPutValue(key, i, -1), expected.adjustOrPutValue(key, i, -1));
+                    break;
+                default:
+                    assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (long key = -1_000; key < 1_000; key++) {
+            assertEquals(map.get(key << 32), expected.get(key << 32));
+            assertEquals(map.containsKey(key << 32), expected.containsKey(key << 32));
+        }
+        assertEquals(new TLongHashSet(map.keys()), expected.keySet());
+        assertEquals(map.values().length, expected.size());
+    }
+
+    @Test
+    public void testChurnReusesTombstones() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        for (long i = 0; i < 1_000; i++) {
+            map.put(i, i);
+        }
+        // The table may grow once while the first tombstones accumulate, but must never grow beyond that
+        int maxCapacity = map.capacity() * 2;
+
+        for (long i = 1_000; i < 500_000; i++) {
+            assertEquals(map.remove(i - 1_000), i - 1_000);
+            assertEquals(map.put(i, i), DEFAULT);
+            assertEquals(map.size(), 1_000);
+            assertTrue(map.capacity() <= maxCapacity);
+        }
+        for (long i = 499_000; i < 500_000; i++) {
+            assertEquals(map.get(i), i);
+        }
+    }
+
+    @Test
+    public void testPresized() {
+        LongLongSwissMap map = new LongLongSwissMap(10_000, 0.75, DEFAULT, DEFAULT);
+        int capacity = map.capacity();
+        for (long i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(map.capacity(), capacity);
+
+        map.ensureCapacity(10_000);
+        capacity = map.capacity();
+        Map<Long, Long> boxed = new HashMap<>();
+        TLongLongMap trove = new TLongLongHashMap();
+        for (long i = 10_000; i < 15_000; i++) {
+            boxed.put(i, i);
+            trove.put(i + 5_000, i + 5_000);
+        }
+        map.putAll(boxed);
+        map.putAll(trove);
+        assertEquals(map.capacity(), capacity);
+
+        map.retainEntries((key, value) -> key < 100);
+        map.trimToSize();
+        assertEquals(map.capacity(), 256);
+        for (long i = 0; i < 20_000; i++) {
+            assertEquals(map.get(i), i < 100 ? i : DEFAULT);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new LongLongSwissMap(-1, 0.75, DEFAULT, DEFAULT));
+    }
+
+    @Test
+    public void testIterator() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        assertFalse(map.iterator().hasNext());
+        TLongLongMap expected = new TLongLongHashMap(16, 0.5f, DEFAULT, DEFAULT);
+        for (int i = 0; i < 10_000; i++) {
+            long key = ThreadLocalRandom.current().nextLong();
+            map.put(key, -i);
+            expected.put(key, -i);
+        }
+
+        TLongLongIterator iterator = map.iterator();
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.advance();
+            assertEquals(iterator.value(), expected.get(iterator.key()));
+            assertEquals(iterator.setValue(iterator.value() + 1), expected.get(iterator.key()));
+            count++;
+        }
+        assertEquals(count, expected.size());
+        assertThrows(NoSuchElementException.class, iterator::advance);
+
+        // Remove every other entry through the iterator
+        iterator = map.iterator();
+        while (iterator.hasNext()) {
+            iterator.advance();
+            if ((iterator.value() & 1) == 0) {
+                expected.remove(iterator.key());
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+        }
+        assertEquals(map.size(), expected.size());
+        for (long key : expected.keys()) {
+            assertEquals(map.get(key), expected.get(key) + 1);
+        }
+
+        TLongLongIterator stale = map.iterator();
+        map.put(DEFAULT, 0);
+        assertThrows(ConcurrentModificationException.class, stale::advance);
+    }
+
+    @Test
+    public void testBulkOperations() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        for (long i = 0; i < 1_000; i++) {
+            map.put(i, i * 2);
+        }
+        assertTrue(map.containsValue(1_998));
+        assertFalse(map.containsValue(1_999));
+
+        long[] sum = {0};
+        assertTrue(map.forEachKey(key -> {
+            sum[0] += key;
+            return true;
+        }));
+        assertEquals(sum[0], 499_500);
+        assertTrue(map.forEachValue(value -> {
+            sum[0] -= value;
+            return true;
+        }));
+        assertEquals(sum[0], -499_500);
+        assertFalse(map.forEachEntry((key, value) -> key < 10));
+
+        map.transformValues(value -> -value);
+        assertTrue(map.forEachEntry((key, value) -> value == -key * 2));
+        assertTrue(map.retainEntries((key, value) -> key % 2 == 0));
+        assertFalse(map.retainEntries((key, value) -> true));
+        assertEquals(map.size(), 500);
+        assertEquals(map.keys(new long[600]).length, 600);
+        assertEquals(map.values(new long[10]).length, 500);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(map.get(0), DEFAULT);
+    }
+
+    @Test
+    public void testKeySet() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        TLongSet keySet = map.keySet();
+        for (long i = 0; i < 100; i++) {
+            map.put(i, -i);
+        }
+        assertEquals(keySet.size(), 100);
+        assertEquals(keySet.getNoEntryValue(), DEFAULT);
+        assertTrue(keySet.contains(99));
+        assertFalse(keySet.contains(100));
+        assertTrue(keySet.containsAll(new long[] {1, 2, 3}));
+        assertEquals(keySet, new TLongHashSet(map.keys()));
+        assertEquals(keySet.hashCode(), new TLongHashSet(map.keys()).hashCode());
+        assertEquals(keySet.toArray(new long[101])[100], DEFAULT);
+        assertThrows(UnsupportedOperationException.class, () -> keySet.add(1));
+
+        assertTrue(keySet.remove(99));
+        assertFalse(keySet.remove(99));
+        assertFalse(map.containsKey(99));
+        assertTrue(keySet.removeAll(new long[] {0, 1, 2}));
+        assertTrue(keySet.retainAll(new long[] {3, 4, 5, 6}));
+        assertEquals(keySet.toString().length(), "{3, 4, 5, 6}".length());
+
+        TLongIterator iterator = keySet.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(map.size(), 2);
+        assertEquals(map.get(3), -3);
+        keySet.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testValueCollection() {
+        LongLongSwissMap map = new LongLongSwissMap(0.75, DEFAULT, DEFAULT);
+        TLongCollection values = map.valueCollection();
+        for (long i = 0; i < 100; i++) {
+            map.put(i, i % 10);
+        }
+        assertEquals(values.size(), 100);
+        assertEquals(values.getNoEntryValue(), DEFAULT);
+        assertTrue(values.contains(9));
+        assertFalse(values.contains(10));
+        assertEquals(values.toArray().length, 100);
+
+        long[] sum = {0};
+        assertTrue(values.forEach(value -> {
+            sum[0] += value;
+            return true;
+        }));
+        assertEquals(sum[0], 450);
+
+        // Removes a single entry with the value
+        assertTrue(values.remove(9));
+        assertEquals(map.size(), 99);
+        assertTrue(values.contains(9));
+
+        assertTrue(values.removeAll(new long[] {9}));
+        assertFalse(values.contains(9));
+        assertTrue(values.retainAll(new long[] {0}));
+        assertEquals(map.size(), 10);
+        assertEquals(values.toString(), "{0, 0, 0, 0, 0, 0, 0, 0, 0, 0}");
+        TLongIterator iterator = values.iterator();
+        assertEquals(iterator.next(), 0);
+        iterator.remove();
+        assertEquals(map.size(), 9);
+    }
+}
@@ -0,0 +1,150 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectSwissMapTest {
+
+    private static final long DEFAULT_KEY = 0XDEADBEEFCAFEL;
+
+    @Test
+    public void testPut() {
+        LongObjectSwissMap<String> map = new LongObjectSwissMap<>(0.75, DEFAULT_KEY);
+        assertEquals(map.getNoEntryKey(), DEFAULT_KEY);
+        assertNull(map.put(1, "one"));
+        assertEquals(map.put(1, "uno"), "one");
+        assertEquals(map.putIfAbsent(1, "eins"), "uno");
+        assertNull(map.putIfAbsent(2, "two"));
+        assertEquals(map.get(2), "two");
+        assertNull(map.get(3));
+
+        // A null value is present, unlike an absent key
+        assertNull(map.put(3, null));
+        assertTrue(map.containsKey(3));
+        assertTrue(map.containsValue(null));
+        assertEquals(map.size(), 3);
+        assertNull(map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertFalse(map.containsValue(null));
+    }
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        LongObjectSwissMap<Long> map = new LongObjectSwissMap<>(0.75, DEFAULT_KEY);
+        TLongObjectMap<Long> expected = new TLongObjectHashMap<>(16, 0.5f, DEFAULT_KEY);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A small key space forces frequent removals, tombstones and compactions
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000) * 0x9E3779B97F4A7C15L;
+            if (random.nextBoolean()) {
+                assertEquals(map.put(key, (long) i), expected.put(key, (long) i));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        assertEquals(new TLongHashSet(map.keys()), expected.keySet());
+        assertTrue(expected.forEachEntry((key, value) -> value.equals(map.get(key))));
+        assertTrue(map.forEachEntry((key, value) -> value.equals(expected.get(key))));
+    }
+
+    @Test
+    public void testConstantHash() {
+        // Every key collides, so every insert past the first group compacts or moves entries along one probe sequence
+        LongObjectSwissMap<String> map = new LongObjectSwissMap<>(0, 0.75, DEFAULT_KEY, key -> 0);
+        for (long i = 0; i < 1_000; i++) {
+            assertNull(map.put(i << 32, Long.toString(i)));
+        }
+        for (long i = 0; i < 1_000; i += 2) {
+            assertEquals(map.remove(i << 32), Long.toString(i));
+        }
+        for (long i = 1_000; i < 1_500; i++) {
+            assertNull(map.put(i << 32, Long.toString(i)));
+        }
+        for (long i = 0; i < 1_500; i++) {
+            assertEquals(map.get(i << 32), i < 1_000 && i % 2 == 0 ? null : Long.toString(i));
+        }
+        assertEquals(map.size(), 1_000);
+        assertEquals(map.values().length, 1_000);
+    }
+
+    @RepeatedTest(10)
+    public void testSeededHashing() {
+        LongObjectSwissMap<Long> map = new LongObjectSwissMap<>(0, 0.875, DEFAULT_KEY, LongHashingStrategy.randomlySeeded());
+        TLongObjectMap<Long> expected = new TLongObjectHashMap<>(16, 0.5f, DEFAULT_KEY);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000) * (1L << 40);
+            if (random.nextBoolean()) {
+                assertEquals(map.put(key, i), expected.put(key, i));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+        }
+        for (long key = 0; key < 2_000; key++) {
+            assertEquals(map.get(key * (1L << 40)), expected.get(key * (1L << 40)));
+        }
+    }
+
+    @Test
+    public void testValues() {
+        LongObjectSwissMap<String> map = new LongObjectSwissMap<>(100, 0.75, DEFAULT_KEY);
+        Map<Long, String> boxed = new HashMap<>();
+        for (long i = 0; i < 100; i++) {
+            boxed.put(i, Long.toString(i));
+        }
+        map.putAll(boxed);
+        LongObjectSwissMap<String> copy = new LongObjectSwissMap<>(0.75, DEFAULT_KEY);
+        copy.putAll(map);
+        assertEquals(copy.size(), 100);
+
+        Object[] values = map.values();
+        Arrays.sort(values);
+        assertEquals(values.length, 100);
+        String[] array = map.values(new String[101]);
+        assertNull(array[100]);
+        assertEquals(map.values(new String[0]).length, 100);
+
+        Collection<String> valueCollection = map.valueCollection();
+        assertEquals(valueCollection.size(), 100);
+        assertTrue(valueCollection.contains("42"));
+        assertTrue(valueCollection.remove("42"));
+        assertFalse(map.containsKey(42));
+        assertTrue(valueCollection.removeIf(value -> value.length() == 1));
+        assertEquals(map.size(), 89);
+        Iterator<String> iterator = valueCollection.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(map.size(), 88);
+
+        map.transformValues(value -> value + "!");
+        assertTrue(map.forEachValue(value -> value.endsWith("!")));
+        assertTrue(map.forEachKey(key -> map.get(key).equals(key + "!")));
+        assertTrue(map.keySet().retainAll(new long[] {10, 11, 12}));
+        assertTrue(map.retainEntries((key, value) -> key != 10));
+        assertEquals(map.size(), 2);
+
+        TLongObjectIterator<String> entries = map.iterator();
+        while (entries.hasNext()) {
+            entries.advance();
+            assertEquals(entries.setValue(null), entries.key() + "!");
+            assertNull(entries.value());
+        }
+        valueCollection.clear();
+        assertTrue(map.isEmpty());
+    }
+}
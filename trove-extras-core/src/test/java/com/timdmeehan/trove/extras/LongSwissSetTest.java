@@ -0,0 +1,109 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongSwissSetTest {
+
+    private static final long DEFAULT = 0XDEADBEEFCAFEL;
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        LongSwissSet set = new LongSwissSet(0.75, DEFAULT);
+        TLongSet expected = new TLongHashSet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Ids spread over the whole long range, drawn from a small set so that they churn
+        long[] elements = new long[2_000];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = random.nextLong();
+        }
+        for (int i = 0; i < 50_000; i++) {
+            long element = elements[random.nextInt(elements.length)];
+            if (random.nextBoolean()) {
+                assertEquals(set.add(element), expected.add(element));
+            } else {
+                assertEquals(set.remove(element), expected.remove(element));
+            }
+            assertEquals(set.size(), expected.size());
+        }
+        for (long element : elements) {
+            assertEquals(set.contains(element), expected.contains(element));
+        }
+        assertEquals(set, expected);
+        assertEquals(set.hashCode(), expected.hashCode());
+    }
+
+    @Test
+    public void testConstantHash() {
+        // Every element collides, so adds past the first group compact or move elements along one probe sequence
+        LongSwissSet set = new LongSwissSet(0, 0.75, DEFAULT, element -> 0);
+        for (long i = 0; i < 1_000; i++) {
+            assertTrue(set.add(i << 32));
+        }
+        for (long i = 0; i < 1_000; i += 2) {
+            assertTrue(set.remove(i << 32));
+        }
+        for (long i = 1_000; i < 1_500; i++) {
+            assertTrue(set.add(i << 32));
+        }
+        for (long i = 0; i < 1_500; i++) {
+            assertEquals(set.contains(i << 32), i >= 1_000 || i % 2 != 0);
+        }
+        assertEquals(set.size(), 1_000);
+        assertThrows(NullPointerException.class, () -> new LongSwissSet(0, 0.75, DEFAULT, null));
+    }
+
+    @RepeatedTest(10)
+    public void testSeededHashing() {
+        LongSwissSet set = new LongSwissSet(0, 0.875, DEFAULT, LongHashingStrategy.randomlySeeded());
+        TLongSet expected = new TLongHashSet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 50_000; i++) {
+            long element = random.nextInt(2_000) * (1L << 40);
+            if (random.nextBoolean()) {
+                assertEquals(set.add(element), expected.add(element));
+            } else {
+                assertEquals(set.remove(element), expected.remove(element));
+            }
+        }
+        assertEquals(set, expected);
+    }
+
+    @Test
+    public void testHighBits() {
+        LongSwissSet set = new LongSwissSet(0.75, DEFAULT);
+        // Elements which only differ in their high half are distinct
+        for (long i = 0; i < 1_000; i++) {
+            assertTrue(set.add(i << 32));
+        }
+        assertEquals(set.size(), 1_000);
+        assertFalse(set.contains(0xFFFFFFFFL));
+        assertTrue(set.contains(999L << 32));
+        assertTrue(set.containsAll(Arrays.asList(0L, 999L << 32)));
+        // Only Longs are long elements, even when another Number would widen to a present element
+        assertFalse(set.containsAll(Arrays.asList(0)));
+        assertFalse(set.containsAll(Arrays.asList(0.0)));
+
+        assertTrue(set.removeAll(new long[] {0, 1L << 32}));
+        assertTrue(set.retainAll(Arrays.asList(2L << 32, 3L << 32, 4L)));
+        assertEquals(set.size(), 2);
+        assertEquals(set.toArray(new long[3])[2], DEFAULT);
+
+        TLongIterator iterator = set.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == 2L << 32) {
+                iterator.remove();
+            }
+        }
+        assertEquals(set, new TLongHashSet(new long[] {3L << 32}));
+    }
+}
@@ -0,0 +1,259 @@
+package com.timdmeehan.trove.extras;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.strategy.HashingStrategy;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjSwissMapTest {
+
+    @Test
+    public void testPut() {
+        ObjSwissMap<String, String> map = new ObjSwissMap<>(0.75);
+        assertNull(map.put("a", "1"));
+        assertEquals(map.put("a", "2"), "1");
+        assertEquals(map.putIfAbsent("a", "3"), "2");
+        assertNull(map.putIfAbsent("b", "3"));
+        assertEquals(map.get("b"), "3");
+        assertNull(map.get("c"));
+        assertEquals(map.getOrDefault("c", "4"), "4");
+        assertEquals(map.getOrDefault("b", "4"), "3");
+
+        // Null keys and values are permitted
+        assertNull(map.put(null, null));
+        assertTrue(map.containsKey(null));
+        assertTrue(map.containsValue(null));
+        assertNull(map.getOrDefault(null, "4"));
+        assertEquals(map.put(null, "5"), null);
+        assertEquals(map.get(null), "5");
+        assertEquals(map.size(), 3);
+        assertEquals(map.remove(null), "5");
+        assertFalse(map.containsKey(null));
+        assertNull(map.remove("c"));
+        assertEquals(map.size(), 2);
+        assertEquals(map, new HashMap<>(map));
+        assertEquals(map.hashCode(), new HashMap<>(map).hashCode());
+    }
+
+    @RepeatedTest(100)
+    public void testRandomChurn() {
+        ObjSwissMap<String, Integer> map = new ObjSwissMap<>(0.75);
+        Map<String, Integer> expected = new THashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A small key space forces frequent removals, tombstones and compactions
+        for (int i = 0; i < 50_000; i++) {
+            String key = "key" + random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(map.put(key, i), expected.put(key, i));
+            } else {
+                assertEquals(map.remove(key), expected.remove(key));
+            }
+            assertEquals(map.size(), expected.size());
+        }
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(map.get("key" + i), expected.get("key" + i));
+        }
+        assertEquals(map, expected);
+        assertEquals(map.keySet(), expected.keySet());
+    }
+
+    @Test
+    public void testEqualsOnlyCalledOnMatches() {
+        ObjSwissMap<CountingKey, Integer> map = new ObjSwissMap<>(0.875);
+        for (int i = 0; i < 100_000; i++) {
+            map.put(new CountingKey(i), i);
+        }
+        // Growing the table rehashes with the cached hash codes
+        assertEquals(CountingKey.hashCodes, 100_000);
+
+        CountingKey.equalsCalls = 0;
+        for (int i = 0; i < 200_000; i++) {
+            assertEquals(map.get(new CountingKey(i)), i < 100_000 ? Integer.valueOf(i) : null);
+        }
+        assertEquals(CountingKey.equalsCalls, 100_000);
+    }
+
+    @Test
+    public void testCollidingHashCodes() {
+        ObjSwissMap<CollidingKey, Integer> map = new ObjSwissMap<>(0.75);
+        Map<CollidingKey, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(map.put(new CollidingKey(i), i), expected.put(new CollidingKey(i), i));
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            assertEquals(map.remove(new CollidingKey(i)), expected.remove(new CollidingKey(i)));
+        }
+        map.trimToSize();
+        assertEquals(map, expected);
+        assertNull(map.get(new CollidingKey(1_000)));
+    }
+
+    @Test
+    public void testHashingStrategy() {
+        HashingStrategy<String> caseInsensitive = new HashingStrategy<String>() {
+            @Override
+            public int computeHashCode(String string) {
+                return string.toLowerCase(Locale.ROOT).hashCode();
+            }
+
+            @Override
+            public boolean equals(String first, String second) {
+                return first.equalsIgnoreCase(second);
+            }
+        };
+        ObjSwissMap<String, Integer> map = new ObjSwissMap<>(0, 0.75, caseInsensitive);
+        assertNull(map.put("Hello", 1));
+        assertEquals(map.put("HELLO", 2), Integer.valueOf(1));
+        assertEquals(map.get("hello"), Integer.valueOf(2));
+        assertTrue(map.containsKey("hElLo"));
+        assertEquals(map.size(), 1);
+        // The first key added is kept
+        assertEquals(map.keySet().iterator().next(), "Hello");
+        assertEquals(map.remove("hello"), Integer.valueOf(2));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testPresized() {
+        ObjSwissMap<Integer, Integer> map = new ObjSwissMap<>(10_000, 0.75);
+        int capacity = map.capacity();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.put(i, i);
+        }
+        map.putAll(expected);
+        assertEquals(map.capacity(), capacity);
+
+        map.retainEntries((key, value) -> key < 100);
+        map.trimToSize();
+        assertEquals(map.capacity(), 256);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(map.get(i), i < 100 ? Integer.valueOf(i) : null);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ObjSwissMap<>(-1, 0.75));
+    }
+
+    @Test
+    public void testViews() {
+        ObjSwissMap<Integer, String> map = new ObjSwissMap<>(0.75);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, Integer.toString(i % 10));
+        }
+        assertTrue(map.keySet().contains(99));
+        assertTrue(map.keySet().remove(99));
+        assertFalse(map.keySet().remove(99));
+        assertTrue(map.values().contains("9"));
+        assertTrue(map.values().remove("9"));
+        assertEquals(map.size(), 98);
+        assertTrue(map.values().removeIf("8"::equals));
+        assertEquals(map.size(), 88);
+
+        assertTrue(map.entrySet().contains(new SimpleEntry<>(0, "0")));
+        assertFalse(map.entrySet().contains(new SimpleEntry<>(0, "1")));
+        assertFalse(map.entrySet().remove(new SimpleEntry<>(0, "1")));
+        assertTrue(map.entrySet().remove(new SimpleEntry<>(0, "0")));
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() + "!");
+        }
+        assertTrue(map.forEachValue(value -> value.endsWith("!")));
+        assertTrue(map.forEachKey(key -> map.get(key).equals(key % 10 + "!")));
+        assertFalse(map.forEachEntry((key, value) -> key < 50));
+        map.transformValues(String::trim);
+
+        Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+                assertThrows(IllegalStateException.class, iterator::remove);
+            }
+        }
+        assertEquals(map.size(), 48);
+        assertThrows(NoSuchElementException.class, iterator::next);
+
+        Iterator<String> stale = map.values().iterator();
+        map.put(-1, "");
+        assertThrows(ConcurrentModificationException.class, stale::next);
+        map.values().clear();
+        assertTrue(map.isEmpty());
+        map.put(1, "1");
+        map.keySet().clear();
+        map.put(1, "1");
+        map.entrySet().clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testSetValueAfterRemove() {
+        ObjSwissMap<Integer, String> map = new ObjSwissMap<>(0.75);
+        map.put(1, "1");
+        Iterator<Map.Entry<Integer, String>> iterator = map.entrySet().iterator();
+        Map.Entry<Integer, String> entry = iterator.next();
+        iterator.remove();
+        assertEquals(entry.setValue("2"), "1");
+        assertEquals(entry.getValue(), "2");
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsValue("2"));
+
+        // A new entry in the same slot is not written through either
+        map.put(2, "2");
+        Map.Entry<Integer, String> reused = map.entrySet().iterator().next();
+        reused.setValue("3");
+        assertEquals(map.get(2), "3");
+        entry.setValue("4");
+        assertEquals(map.get(2), "3");
+        assertEquals(map.size(), 1);
+    }
+
+    private static final class CountingKey {
+        private static int hashCodes;
+        private static int equalsCalls;
+
+        private final int id;
+
+        CountingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodes++;
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            equalsCalls++;
+            return other instanceof CountingKey && ((CountingKey) other).id == id;
+        }
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 7;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CollidingKey && ((CollidingKey) other).id == id;
+        }
+    }
+}
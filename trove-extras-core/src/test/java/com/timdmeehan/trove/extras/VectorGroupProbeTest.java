@@ -0,0 +1,45 @@
+package com.timdmeehan.trove.extras;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VectorGroupProbeTest {
+
+    private static final int DEFAULT = 0XDEADBEEF;
+
+    private static GroupProbe probe;
+
+    @BeforeAll
+    public static void loadProbe() {
+        probe = GroupProbe.loadVectorProbe();
+    }
+
+    @RepeatedTest(20)
+    public void testMatchesSwar() {
+        // Only built and runnable on JDK 17 and later
+        assumeTrue(probe != null);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (double loadFactor : new double[] {0.5, 0.75, 0.875, 0.95}) {
+            IntIntSwissMap map = new IntIntSwissMap(loadFactor, DEFAULT, DEFAULT);
+            // Churn over a small key space, so that tables are full of tombstones and long probes
+            for (int i = 0; i < 20_000; i++) {
+                int key = random.nextInt(4_000);
+                if (random.nextInt(3) == 0) {
+                    map.remove(key);
+                } else {
+                    map.put(key, i);
+                }
+            }
+            for (int key = -100; key < 4_100; key++) {
+                int index = map.find(probe, key);
+                assertEquals(index >= 0, map.containsKey(key));
+            }
+        }
+    }
+}